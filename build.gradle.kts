@@ -1,6 +1,7 @@
 plugins {
     `java-library`
     `maven-publish`
+    alias(libs.plugins.jmh)
 }
 
 repositories {
@@ -13,6 +14,8 @@ repositories {
 dependencies {
     compileOnly(libs.paper.api)
     compileOnly(libs.placeholderapi)
+
+    jmh(libs.paper.api)
 }
 
 group = "uk.firedev"
@@ -47,6 +50,13 @@ publishing {
     }
 }
 
+jmh {
+    jmhVersion = libs.versions.jmh.get()
+    // Allocation rates are reported next to the timings, so regressions show up as numbers.
+    profilers = listOf("gc")
+    resultFormat = "JSON"
+}
+
 tasks {
     withType<JavaCompile> {
         options.encoding = "UTF-8"
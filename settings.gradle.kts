@@ -11,7 +11,11 @@ dependencyResolutionManagement {
 
             // paperLibrary dependencies
 
+            // benchmark dependencies
+            version("jmh", "1.37")
+
             // Gradle plugins
+            plugin("jmh", "me.champeau.jmh").version("0.7.3")
         }
     }
 }
@@ -0,0 +1,149 @@
+package uk.firedev.messagelib.benchmark;
+
+import net.kyori.adventure.text.Component;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import uk.firedev.messagelib.Utils;
+import uk.firedev.messagelib.message.ComponentListMessage;
+import uk.firedev.messagelib.message.ComponentMessage;
+import uk.firedev.messagelib.message.ComponentSingleMessage;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Covers building, transforming and serializing messages.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MessageBenchmark {
+
+    @Param({"1", "15", "100"})
+    public int lines;
+
+    private Component component;
+    private List<Component> components;
+    private List<String> strings;
+    private List<Object> nested;
+    private ComponentSingleMessage singleMessage;
+    private ComponentListMessage listMessage;
+
+    @Setup
+    public void setup() {
+        component = Utils.processString("<gold>Welcome <bold>back</bold>, <hover:show_text:'<green>Hi'>friend</hover>!");
+        components = new ArrayList<>();
+        strings = new ArrayList<>();
+        for (int i = 0; i < lines; i++) {
+            String line = "<gray>" + i + ". <yellow>/command " + i + " <dark_gray>- <white>Does thing number " + i;
+            strings.add(line);
+            components.add(Utils.processString(line));
+        }
+        // Config lists often mix plain entries with nested sections.
+        nested = new ArrayList<>();
+        for (int i = 0; i < lines; i += 5) {
+            nested.add(components.subList(i, Math.min(i + 5, lines)));
+            nested.add(component);
+        }
+        singleMessage = ComponentMessage.componentMessage(component);
+        listMessage = ComponentMessage.componentMessage(components);
+    }
+
+    @Benchmark
+    public ComponentSingleMessage singleConstructor() {
+        return ComponentMessage.componentMessage(component);
+    }
+
+    @Benchmark
+    public ComponentListMessage listConstructor() {
+        return ComponentMessage.componentMessage(components);
+    }
+
+    @Benchmark
+    public ComponentListMessage listFromStrings() {
+        return ComponentMessage.componentMessage(strings);
+    }
+
+    @Benchmark
+    public ComponentListMessage listFromNestedObjects() {
+        return ComponentMessage.componentMessage(nested);
+    }
+
+    @Benchmark
+    public ComponentSingleMessage singleChain() {
+        return singleMessage.prepend("<red>[Prefix] ").append(" <gray>(suffix)").replace("friend", "player");
+    }
+
+    // Messages cache their serialized forms, so these measure reading the cached value.
+
+    @Benchmark
+    public String singleAsJson() {
+        return singleMessage.getAsJson();
+    }
+
+    @Benchmark
+    public String singleAsLegacy() {
+        return singleMessage.getAsLegacy();
+    }
+
+    @Benchmark
+    public List<String> listAsJson() {
+        return listMessage.getAsJson();
+    }
+
+    @Benchmark
+    public List<String> listAsLegacy() {
+        return listMessage.getAsLegacy();
+    }
+
+    // Fresh messages every invocation, so these measure serialization itself.
+
+    @Benchmark
+    public String singleAsJsonCold(FreshMessages fresh) {
+        return fresh.singleMessage.getAsJson();
+    }
+
+    @Benchmark
+    public String singleAsLegacyCold(FreshMessages fresh) {
+        return fresh.singleMessage.getAsLegacy();
+    }
+
+    @Benchmark
+    public List<String> listAsJsonCold(FreshMessages fresh) {
+        return fresh.listMessage.getAsJson();
+    }
+
+    @Benchmark
+    public List<String> listAsLegacyCold(FreshMessages fresh) {
+        return fresh.listMessage.getAsLegacy();
+    }
+
+    @State(Scope.Thread)
+    public static class FreshMessages {
+
+        private ComponentSingleMessage singleMessage;
+        private ComponentListMessage listMessage;
+
+        @Setup(Level.Invocation)
+        public void setup(MessageBenchmark benchmark) {
+            singleMessage = ComponentMessage.componentMessage(benchmark.component);
+            listMessage = ComponentMessage.componentMessage(benchmark.components);
+        }
+
+    }
+
+}
@@ -0,0 +1,53 @@
+package uk.firedev.messagelib.benchmark;
+
+import net.kyori.adventure.text.Component;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import uk.firedev.messagelib.MessageLibSettings;
+import uk.firedev.messagelib.Utils;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProcessStringBenchmark {
+
+    @Param({"PLAIN", "MINIMESSAGE", "LEGACY_AMPERSAND", "LEGACY_SECTION"})
+    public String format;
+
+    @Param({"false", "true"})
+    public boolean enableLegacy;
+
+    private String input;
+
+    @Setup
+    public void setup() {
+        MessageLibSettings.get().setEnableLegacy(enableLegacy);
+        input = switch (format) {
+            case "PLAIN" -> "Welcome back to the server, have a nice day!";
+            case "MINIMESSAGE" -> "<gradient:#ff0000:#0000ff>Welcome back</gradient> to the <bold>server</bold>, <hover:show_text:'<green>Hi'>have a nice day!</hover>";
+            case "LEGACY_AMPERSAND" -> "&cWelcome back &7to the &lserver&r, &#00ff00have a nice day!";
+            case "LEGACY_SECTION" -> "§cWelcome back §7to the §lserver§r, §ahave a nice day!";
+            default -> throw new IllegalArgumentException("Unknown format " + format);
+        };
+    }
+
+    @Benchmark
+    public Component processString() {
+        return Utils.processString(input);
+    }
+
+}
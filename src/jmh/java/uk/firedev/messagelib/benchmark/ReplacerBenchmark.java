@@ -0,0 +1,70 @@
+package uk.firedev.messagelib.benchmark;
+
+import net.kyori.adventure.text.Component;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import uk.firedev.messagelib.Utils;
+import uk.firedev.messagelib.replacer.Replacer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReplacerBenchmark {
+
+    @Param({"1", "5", "10", "25", "50"})
+    public int keys;
+
+    private Replacer replacer;
+    private Component component;
+    private List<Component> lines;
+
+    @Setup
+    public void setup() {
+        replacer = Replacer.replacer();
+        StringBuilder template = new StringBuilder("<gray>Stats: ");
+        lines = new ArrayList<>();
+        for (int i = 0; i < keys; i++) {
+            String key = "{key" + i + "}";
+            replacer.addReplacement(key, "<green>value " + i);
+            template.append("<white>").append(key).append("</white> ");
+            lines.add(Utils.processString("<gray>Line " + i + ": <white>" + key));
+        }
+        // Lines without any placeholder are kept as-is by the list insertion.
+        for (int i = 0; i < keys; i++) {
+            lines.add(Utils.processString("<gray>Static line " + i));
+        }
+        component = Utils.processString(template.toString());
+    }
+
+    @Benchmark
+    public Component apply() {
+        return replacer.apply(component);
+    }
+
+    @Benchmark
+    public List<Component> applyList() {
+        return replacer.apply(lines);
+    }
+
+    @Benchmark
+    public List<Component> applyWithListInsertion() {
+        return replacer.applyWithListInsertion(lines);
+    }
+
+}
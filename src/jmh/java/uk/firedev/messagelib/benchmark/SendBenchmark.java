@@ -0,0 +1,92 @@
+package uk.firedev.messagelib.benchmark;
+
+import net.kyori.adventure.audience.Audience;
+import net.kyori.adventure.text.Component;
+import org.jetbrains.annotations.NotNull;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import uk.firedev.messagelib.message.BroadcastReport;
+import uk.firedev.messagelib.message.ComponentListMessage;
+import uk.firedev.messagelib.message.ComponentMessage;
+import uk.firedev.messagelib.message.ComponentSingleMessage;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Covers fanning a message out to many audiences. The audiences only count what they receive.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SendBenchmark {
+
+    @Param({"1", "100", "500"})
+    public int audiences;
+
+    private List<Audience> audienceList;
+    private ComponentSingleMessage singleMessage;
+    private ComponentListMessage listMessage;
+
+    @Setup
+    public void setup() {
+        audienceList = new ArrayList<>();
+        for (int i = 0; i < audiences; i++) {
+            audienceList.add(new CountingAudience());
+        }
+        singleMessage = ComponentMessage.componentMessage("<gold>Server restarting in <red>5 minutes</red>!");
+        List<String> help = new ArrayList<>();
+        for (int i = 0; i < 15; i++) {
+            help.add("<yellow>/command " + i + " <dark_gray>- <white>Does thing number " + i);
+        }
+        listMessage = ComponentMessage.componentMessage(help);
+    }
+
+    @Benchmark
+    public void sendSingle() {
+        singleMessage.send(audienceList);
+    }
+
+    @Benchmark
+    public void sendList() {
+        listMessage.send(audienceList);
+    }
+
+    @Benchmark
+    public BroadcastReport sendPersonalized() {
+        return singleMessage.sendPersonalized(
+            audienceList,
+            (message, audience) -> message.replace("minutes", audience.hashCode())
+        ).join();
+    }
+
+    private static class CountingAudience implements Audience {
+
+        private long received;
+
+        @Override
+        public void sendMessage(@NotNull Component message) {
+            received++;
+        }
+
+        @Override
+        public void sendActionBar(@NotNull Component message) {
+            received++;
+        }
+
+    }
+
+}
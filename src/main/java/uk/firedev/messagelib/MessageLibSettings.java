@@ -1,14 +1,36 @@
 package uk.firedev.messagelib;
 
 import net.kyori.adventure.text.minimessage.MiniMessage;
+import org.bukkit.Bukkit;
+import org.bukkit.plugin.Plugin;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import uk.firedev.messagelib.cache.BoundedCache;
+import uk.firedev.messagelib.cache.CacheStats;
+import uk.firedev.messagelib.diagnostics.Diagnostics;
+import uk.firedev.messagelib.placeholders.PlaceholderCache;
 
+import java.lang.reflect.Method;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Function;
 
+/**
+ * The settings used by the library.
+ * <p>
+ * Every change publishes a new {@link SettingsSnapshot}, so threads reading the settings never see a partly applied change.
+ * Code that reads several settings for one operation should read {@link #snapshot()} once and use that.
+ */
 public class MessageLibSettings {
 
     private static final MessageLibSettings instance = new MessageLibSettings();
 
+    // Only accessed while holding this instance's lock. Readers use the published snapshot instead.
     private @NotNull MiniMessage.Builder miniMessageBuilder = MiniMessage.builder()
         .postProcessor(component -> component);
     private @NotNull MiniMessage miniMessage = miniMessageBuilder.build();
@@ -16,52 +38,350 @@ public class MessageLibSettings {
     private boolean allowEmptyAppend = false;
     private boolean allowEmptyPrepend = false;
     private boolean allowDebug = false;
+    private boolean coalesceChatLines = false;
+    private @Nullable Diagnostics diagnostics = null;
+    private @Nullable BoundedCache<String, SettingsSnapshot.ParsedString> parseCache = null;
+    private @Nullable PlaceholderCache placeholderCache = null;
+    private @Nullable Executor renderExecutor = null;
+    private @Nullable Executor deliveryExecutor = null;
+    private @Nullable Executor mainThreadExecutor = null;
+    private final Set<String> mainThreadPlaceholders = new HashSet<>();
+    private long generation = 0;
+    private long parseGeneration = 0;
 
-    private MessageLibSettings() {}
+    private volatile @NotNull SettingsSnapshot snapshot;
+
+    private MessageLibSettings() {
+        this.snapshot = createSnapshot();
+    }
 
     public static @NotNull MessageLibSettings get() {
         return instance;
     }
 
+    /**
+     * Gets the current settings as an immutable snapshot.
+     * @return The current snapshot.
+     */
+    public @NotNull SettingsSnapshot snapshot() {
+        return this.snapshot;
+    }
+
+    /**
+     * @return The generation of the current snapshot.
+     * @see SettingsSnapshot#getGeneration()
+     */
+    public long getGeneration() {
+        return this.snapshot.getGeneration();
+    }
+
+    /**
+     * @return The parse generation of the current snapshot.
+     * @see SettingsSnapshot#getParseGeneration()
+     */
+    public long getParseGeneration() {
+        return this.snapshot.getParseGeneration();
+    }
+
     public boolean isEnableLegacy() {
-        return this.enableLegacy;
+        return this.snapshot.isEnableLegacy();
     }
 
-    public void setEnableLegacy(boolean allow) {
+    public synchronized void setEnableLegacy(boolean allow) {
         this.enableLegacy = allow;
+        this.parseGeneration++;
+        publish();
     }
 
     public boolean isAllowEmptyAppend() {
-        return this.allowEmptyAppend;
+        return this.snapshot.isAllowEmptyAppend();
     }
 
-    public void setAllowEmptyAppend(boolean allowEmptyAppend) {
+    public synchronized void setAllowEmptyAppend(boolean allowEmptyAppend) {
         this.allowEmptyAppend = allowEmptyAppend;
+        publish();
     }
 
     public boolean isAllowEmptyPrepend() {
-        return this.allowEmptyPrepend;
+        return this.snapshot.isAllowEmptyPrepend();
     }
 
-    public void setAllowEmptyPrepend(boolean allowEmptyPrepend) {
+    public synchronized void setAllowEmptyPrepend(boolean allowEmptyPrepend) {
         this.allowEmptyPrepend = allowEmptyPrepend;
+        publish();
     }
 
     public boolean isAllowDebug() {
-        return this.allowDebug;
+        return this.snapshot.isAllowDebug();
     }
 
-    public void setAllowDebug(boolean allowDebug) {
+    public synchronized void setAllowDebug(boolean allowDebug) {
         this.allowDebug = allowDebug;
+        publish();
+    }
+
+    public boolean isCoalesceChatLines() {
+        return this.snapshot.isCoalesceChatLines();
+    }
+
+    /**
+     * Sets whether multi-line chat messages are sent as one newline-joined message instead of one message per line.
+     * <p>
+     * This sends one chat packet per recipient instead of one per line. The joined message is built once per message and shared between recipients.
+     * Other message types are always sent line by line. This is disabled by default, as chat plugins see the message as one entry.
+     * @param coalesceChatLines Whether chat lines should be joined.
+     */
+    public synchronized void setCoalesceChatLines(boolean coalesceChatLines) {
+        this.coalesceChatLines = coalesceChatLines;
+        publish();
+    }
+
+    public @Nullable Diagnostics getDiagnostics() {
+        return this.snapshot.getDiagnostics();
+    }
+
+    /**
+     * Sets the buffer debug messages are recorded into.
+     * <p>
+     * While a buffer is set, debug messages are rate limited and kept in memory instead of being logged with a stack trace each,
+     * whether or not {@link #isAllowDebug()} is enabled.
+     * @param diagnostics The buffer to record into, or null to stop recording.
+     * @see Diagnostics#diagnostics(int)
+     */
+    public synchronized void setDiagnostics(@Nullable Diagnostics diagnostics) {
+        this.diagnostics = diagnostics;
+        publish();
     }
 
     public @NotNull MiniMessage getMiniMessage() {
-        return this.miniMessage;
+        return this.snapshot.getMiniMessage();
     }
 
-    public void editMiniMessage(@NotNull Function<MiniMessage.@NotNull Builder, MiniMessage.@NotNull Builder> editor) {
+    public synchronized void editMiniMessage(@NotNull Function<MiniMessage.@NotNull Builder, MiniMessage.@NotNull Builder> editor) {
         this.miniMessageBuilder = editor.apply(this.miniMessageBuilder);
         this.miniMessage = this.miniMessageBuilder.build();
+        this.parseGeneration++;
+        publish();
+    }
+
+    public int getParseCacheSize() {
+        BoundedCache<String, SettingsSnapshot.ParsedString> cache = this.snapshot.getParseCache();
+        return cache == null ? 0 : cache.getMaximumSize();
+    }
+
+    /**
+     * Sets how many parsed Strings {@link Utils#processString(String)} keeps cached.
+     * <p>
+     * The cache is disabled by default. Changing the size discards everything that was cached.
+     * Results parsed before a change to the MiniMessage instance or legacy support are discarded when they are next looked up,
+     * so the cache never returns output from before such a change. Other settings leave cached results in place.
+     * @param size The maximum number of cached Strings, or 0 to disable the cache.
+     */
+    public synchronized void setParseCacheSize(int size) {
+        this.parseCache = size > 0 ? new BoundedCache<>(size) : null;
+        publish();
+    }
+
+    /**
+     * Gets the statistics of the parse cache.
+     * @return The statistics of the parse cache, or empty statistics if it is disabled.
+     */
+    public @NotNull CacheStats getParseCacheStats() {
+        BoundedCache<String, SettingsSnapshot.ParsedString> cache = this.snapshot.getParseCache();
+        return cache == null ? CacheStats.empty() : cache.stats();
+    }
+
+    /**
+     * Discards every cached parse result.
+     * <p>
+     * Results from older settings are never returned, so this is only needed to free memory.
+     */
+    public void clearParseCache() {
+        BoundedCache<String, SettingsSnapshot.ParsedString> cache = this.snapshot.getParseCache();
+        if (cache != null) {
+            cache.invalidateAll();
+        }
+    }
+
+    public @Nullable PlaceholderCache getPlaceholderCache() {
+        return this.snapshot.getPlaceholderCache();
+    }
+
+    /**
+     * Sets the cache used for resolved PlaceholderAPI placeholders.
+     * <p>
+     * The cache is disabled by default.
+     * @param placeholderCache The cache to use, or null to disable caching.
+     * @see PlaceholderCache#placeholderCache(int, java.time.Duration)
+     * @see PlaceholderCache#tickScopedPlaceholderCache(int)
+     */
+    public synchronized void setPlaceholderCache(@Nullable PlaceholderCache placeholderCache) {
+        this.placeholderCache = placeholderCache;
+        publish();
+    }
+
+    /**
+     * Gets the statistics of the placeholder cache.
+     * @return The statistics of the placeholder cache, or empty statistics if it is disabled.
+     */
+    public @NotNull CacheStats getPlaceholderCacheStats() {
+        PlaceholderCache cache = this.snapshot.getPlaceholderCache();
+        return cache == null ? CacheStats.empty() : cache.stats();
+    }
+
+    /**
+     * Gets the executor personalized broadcasts render on.
+     * <p>
+     * Unless one has been set, this uses virtual threads when the runtime supports them, and the common pool otherwise.
+     */
+    public @NotNull Executor getRenderExecutor() {
+        return this.snapshot.getRenderExecutor();
+    }
+
+    /**
+     * Sets the executor personalized broadcasts render on.
+     * @param renderExecutor The executor to use, or null to use the default.
+     */
+    public synchronized void setRenderExecutor(@Nullable Executor renderExecutor) {
+        this.renderExecutor = renderExecutor;
+        publish();
+    }
+
+    /**
+     * Gets the executor personalized broadcasts and completed asynchronous messages are delivered on.
+     * <p>
+     * Unless one has been set, this is {@link #getMainThreadExecutor()}, so setting that to {@link #mainThreadExecutor(Plugin)}
+     * delivers on the server's main thread.
+     * @throws IllegalStateException If neither this nor the main thread executor has been set.
+     */
+    public @NotNull Executor getDeliveryExecutor() {
+        return this.snapshot.getDeliveryExecutor();
+    }
+
+    /**
+     * Sets the executor personalized broadcasts and completed asynchronous messages are delivered on.
+     * @param deliveryExecutor The executor to use, or null to use {@link #getMainThreadExecutor()}.
+     * @see #mainThreadExecutor(Plugin)
+     */
+    public synchronized void setDeliveryExecutor(@Nullable Executor deliveryExecutor) {
+        this.deliveryExecutor = deliveryExecutor;
+        publish();
+    }
+
+    /**
+     * Gets the executor used for work that must happen on the server's main thread during asynchronous rendering.
+     * <p>
+     * None is set by default. Set this to {@link #mainThreadExecutor(Plugin)} on a server.
+     * @throws IllegalStateException If no main thread executor has been set.
+     */
+    public @NotNull Executor getMainThreadExecutor() {
+        return this.snapshot.getMainThreadExecutor();
+    }
+
+    /**
+     * @return True if a main thread executor has been set, false otherwise.
+     */
+    public boolean hasMainThreadExecutor() {
+        return this.snapshot.hasMainThreadExecutor();
+    }
+
+    /**
+     * Sets the executor used for work that must happen on the server's main thread during asynchronous rendering.
+     * @param mainThreadExecutor The executor to use, or null to unset it.
+     * @see #mainThreadExecutor(Plugin)
+     */
+    public synchronized void setMainThreadExecutor(@Nullable Executor mainThreadExecutor) {
+        this.mainThreadExecutor = mainThreadExecutor;
+        publish();
+    }
+
+    /**
+     * Marks PlaceholderAPI placeholders that must be resolved on the server's main thread.
+     * <p>
+     * When rendering asynchronously, these are resolved on {@link #getMainThreadExecutor()} before the rest of the message is rendered.
+     * Either a full identifier, such as {@code vault_eco_balance}, or an expansion identifier, such as {@code vault}, can be provided.
+     * @param identifiers The identifiers to mark, without the surrounding percent signs.
+     */
+    public synchronized void addMainThreadPlaceholders(@NotNull String @NotNull... identifiers) {
+        for (String identifier : identifiers) {
+            this.mainThreadPlaceholders.add(identifier.toLowerCase(Locale.ROOT));
+        }
+        publish();
+    }
+
+    public synchronized void removeMainThreadPlaceholders(@NotNull String @NotNull... identifiers) {
+        for (String identifier : identifiers) {
+            this.mainThreadPlaceholders.remove(identifier.toLowerCase(Locale.ROOT));
+        }
+        publish();
+    }
+
+    public boolean isMainThreadPlaceholder(@NotNull String identifier) {
+        return this.snapshot.isMainThreadPlaceholder(identifier);
+    }
+
+    // Must be called while holding this instance's lock.
+    private void publish() {
+        this.generation++;
+        this.snapshot = createSnapshot();
+    }
+
+    private @NotNull SettingsSnapshot createSnapshot() {
+        return new SettingsSnapshot(
+            this.generation,
+            this.parseGeneration,
+            this.miniMessage,
+            this.enableLegacy,
+            this.allowEmptyAppend,
+            this.allowEmptyPrepend,
+            this.allowDebug,
+            this.coalesceChatLines,
+            this.diagnostics,
+            this.parseCache,
+            this.placeholderCache,
+            this.renderExecutor,
+            this.deliveryExecutor,
+            this.mainThreadExecutor,
+            this.mainThreadPlaceholders
+        );
+    }
+
+    /**
+     * Creates an executor that runs tasks on the server's main thread, using the provided plugin to schedule them.
+     * <p>
+     * Tasks submitted from the main thread are run immediately.
+     * @param plugin The plugin to schedule tasks with.
+     * @return The new executor.
+     */
+    public static @NotNull Executor mainThreadExecutor(@NotNull Plugin plugin) {
+        return task -> {
+            if (Bukkit.isPrimaryThread()) {
+                task.run();
+            } else {
+                Bukkit.getScheduler().runTask(plugin, task);
+            }
+        };
+    }
+
+    static @NotNull Executor defaultRenderExecutor() {
+        return DefaultRenderExecutor.INSTANCE;
+    }
+
+    // Only created once the default render executor is first needed.
+    private static final class DefaultRenderExecutor {
+
+        private static final Executor INSTANCE = create();
+
+        // Virtual threads only exist from Java 21, so they are looked up reflectively.
+        private static @NotNull Executor create() {
+            try {
+                Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+                return (ExecutorService) method.invoke(null);
+            } catch (ReflectiveOperationException exception) {
+                return ForkJoinPool.commonPool();
+            }
+        }
+
     }
 
 }
@@ -9,17 +9,28 @@ import uk.firedev.messagelib.message.ComponentSingleMessage;
 import uk.firedev.messagelib.message.MessageType;
 
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.function.Function;
 
 /**
  * A class for processing different classes into Components.
  * <p>
  * This returns a list to be compatible with list messages.
+ * <p>
+ * The processors to use for each concrete class are resolved once and cached, so processing does not get slower as more processors are registered.
+ * Registration is thread-safe, and replaces the registered processors instead of changing them in place.
  */
 public class ObjectProcessor {
 
-    private static final List<Processor<?>> PROCESSORS = new ArrayList<>();
+    public static final int DEFAULT_PRIORITY = 0;
+
+    private static final Object LOCK = new Object();
+    private static final Comparator<Processor<?>> ORDER = Comparator.comparingInt((Processor<?> processor) -> processor.priority).reversed();
+
+    private static volatile List<Processor<?>> processors = List.of();
+    private static volatile ClassValue<List<Processor<?>>> dispatch = createDispatch(processors);
 
     static {
         registerProcessor(
@@ -45,15 +56,40 @@ public class ObjectProcessor {
         if (object == null) {
             return List.of();
         }
+        if (object instanceof List<?>) {
+            List<Component> processed = new ArrayList<>();
+            process(object, processed::add);
+            return processed;
+        }
+        return processSingle(object);
+    }
+
+    /**
+     * Processes an object into Components using registered processors, passing each one straight to the provided sink.
+     * <p>
+     * Unlike {@link #process(Object)}, no intermediate lists are created for nested lists.
+     * @param object The object to process.
+     * @param sink The consumer to receive each processed Component, in order.
+     */
+    public static void process(@Nullable Object object, @NotNull Consumer<? super Component> sink) {
+        if (object == null) {
+            return;
+        }
         // Process every object in a list individually, otherwise the list will become a single String.
         if (object instanceof List<?> list) {
-            List<Component> processed = new ArrayList<>();
             for (Object obj : list) {
-                processed.addAll(process(obj));
+                process(obj, sink);
             }
-            return processed;
+            return;
         }
-        for (Processor<?> processor : PROCESSORS) {
+        List<Component> components = processSingle(object);
+        for (int i = 0; i < components.size(); i++) {
+            sink.accept(components.get(i));
+        }
+    }
+
+    private static @NotNull List<Component> processSingle(@NotNull Object object) {
+        for (Processor<?> processor : dispatch.get(object.getClass())) {
             // We cannot pass the MiniMessage instance here.
             List<Component> components = processor.process(object);
             if (components != null) {
@@ -66,31 +102,98 @@ public class ObjectProcessor {
     }
 
     /**
-     * Registers a processor for the provided class.
+     * Registers a processor for the provided class with the default priority.
      * @param clazz The class to process.
      * @param processor The component provider.
      */
     public static <T> void registerProcessor(@NotNull Class<T> clazz, @NotNull Function<T, List<Component>> processor) {
-        PROCESSORS.add(
-            new Processor<>(clazz, processor)
-        );
+        registerProcessor(clazz, processor, DEFAULT_PRIORITY);
+    }
+
+    /**
+     * Registers a processor for the provided class.
+     * <p>
+     * When several processors match an object, the one with the highest priority is used.
+     * Processors with the same priority are used in the order they were registered.
+     * @param clazz The class to process.
+     * @param processor The component provider.
+     * @param priority The priority of the processor.
+     */
+    public static <T> void registerProcessor(@NotNull Class<T> clazz, @NotNull Function<T, List<Component>> processor, int priority) {
+        synchronized (LOCK) {
+            List<Processor<?>> updated = new ArrayList<>(processors);
+            updated.add(new Processor<>(clazz, processor, priority));
+            // The sort is stable, so registration order is kept within a priority.
+            updated.sort(ORDER);
+            publish(updated);
+        }
+    }
+
+    /**
+     * Unregisters every processor for the provided class.
+     * @param clazz The class to stop processing.
+     * @return True if any processors were unregistered, false otherwise.
+     */
+    public static boolean unregisterProcessor(@NotNull Class<?> clazz) {
+        synchronized (LOCK) {
+            List<Processor<?>> updated = new ArrayList<>(processors);
+            if (!updated.removeIf(processor -> processor.clazz == clazz)) {
+                return false;
+            }
+            publish(updated);
+            return true;
+        }
+    }
+
+    /**
+     * Unregisters a single processor.
+     * @param clazz The class the processor was registered for.
+     * @param processor The component provider that was registered.
+     * @return True if the processor was unregistered, false otherwise.
+     */
+    public static boolean unregisterProcessor(@NotNull Class<?> clazz, @NotNull Function<?, List<Component>> processor) {
+        synchronized (LOCK) {
+            List<Processor<?>> updated = new ArrayList<>(processors);
+            if (!updated.removeIf(registered -> registered.clazz == clazz && registered.processor == processor)) {
+                return false;
+            }
+            publish(updated);
+            return true;
+        }
+    }
+
+    private static void publish(@NotNull List<Processor<?>> updated) {
+        List<Processor<?>> published = List.copyOf(updated);
+        // The lookup cache is replaced rather than cleared, so readers never see a half updated cache.
+        dispatch = createDispatch(published);
+        processors = published;
+    }
+
+    private static @NotNull ClassValue<List<Processor<?>>> createDispatch(@NotNull List<Processor<?>> processors) {
+        return new ClassValue<>() {
+            @Override
+            protected List<Processor<?>> computeValue(@NotNull Class<?> type) {
+                return processors.stream()
+                    .filter(processor -> processor.clazz.isAssignableFrom(type))
+                    .toList();
+            }
+        };
     }
 
     private static class Processor<T> {
 
         private final Class<T> clazz;
         private final Function<T, List<Component>> processor;
+        private final int priority;
 
-        public Processor(@NotNull Class<T> clazz, @NotNull Function<T, List<Component>> processor) {
+        public Processor(@NotNull Class<T> clazz, @NotNull Function<T, List<Component>> processor, int priority) {
             this.clazz = clazz;
             this.processor = processor;
+            this.priority = priority;
         }
 
         public @Nullable List<Component> process(@NotNull Object object) {
-            if (clazz.isInstance(object)) {
-                return processor.apply(clazz.cast(object));
-            }
-            return null;
+            return processor.apply(clazz.cast(object));
         }
 
     }
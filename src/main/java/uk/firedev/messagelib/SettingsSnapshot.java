@@ -0,0 +1,182 @@
+package uk.firedev.messagelib;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.minimessage.MiniMessage;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import uk.firedev.messagelib.cache.BoundedCache;
+import uk.firedev.messagelib.diagnostics.Diagnostics;
+import uk.firedev.messagelib.placeholders.PlaceholderCache;
+import uk.firedev.messagelib.placeholders.PlaceholderIdentifiers;
+
+import java.util.Set;
+import java.util.concurrent.Executor;
+
+/**
+ * An immutable view of {@link MessageLibSettings} at one point in time.
+ * <p>
+ * A new snapshot is published every time a setting changes, with a higher generation than the last.
+ * Reading the snapshot once and using it for a whole operation means every setting comes from the same point in time.
+ */
+// NEEDS TO BE IMMUTABLE - any change makes a new instance.
+public final class SettingsSnapshot {
+
+    private final long generation;
+    private final long parseGeneration;
+    private final MiniMessage miniMessage;
+    private final boolean enableLegacy;
+    private final boolean allowEmptyAppend;
+    private final boolean allowEmptyPrepend;
+    private final boolean allowDebug;
+    private final boolean coalesceChatLines;
+    private final @Nullable Diagnostics diagnostics;
+    private final @Nullable BoundedCache<String, ParsedString> parseCache;
+    private final @Nullable PlaceholderCache placeholderCache;
+    private final @Nullable Executor renderExecutor;
+    private final @Nullable Executor deliveryExecutor;
+    private final @Nullable Executor mainThreadExecutor;
+    private final Set<String> mainThreadPlaceholders;
+
+    SettingsSnapshot(
+        long generation,
+        long parseGeneration,
+        @NotNull MiniMessage miniMessage,
+        boolean enableLegacy,
+        boolean allowEmptyAppend,
+        boolean allowEmptyPrepend,
+        boolean allowDebug,
+        boolean coalesceChatLines,
+        @Nullable Diagnostics diagnostics,
+        @Nullable BoundedCache<String, ParsedString> parseCache,
+        @Nullable PlaceholderCache placeholderCache,
+        @Nullable Executor renderExecutor,
+        @Nullable Executor deliveryExecutor,
+        @Nullable Executor mainThreadExecutor,
+        @NotNull Set<String> mainThreadPlaceholders
+    ) {
+        this.generation = generation;
+        this.parseGeneration = parseGeneration;
+        this.miniMessage = miniMessage;
+        this.enableLegacy = enableLegacy;
+        this.allowEmptyAppend = allowEmptyAppend;
+        this.allowEmptyPrepend = allowEmptyPrepend;
+        this.allowDebug = allowDebug;
+        this.coalesceChatLines = coalesceChatLines;
+        this.diagnostics = diagnostics;
+        this.parseCache = parseCache;
+        this.placeholderCache = placeholderCache;
+        this.renderExecutor = renderExecutor;
+        this.deliveryExecutor = deliveryExecutor;
+        this.mainThreadExecutor = mainThreadExecutor;
+        this.mainThreadPlaceholders = Set.copyOf(mainThreadPlaceholders);
+    }
+
+    /**
+     * Gets the generation of this snapshot. Every change to the settings publishes a snapshot with a higher generation.
+     * @return The generation of this snapshot.
+     */
+    public long getGeneration() {
+        return this.generation;
+    }
+
+    /**
+     * Gets the parse generation of this snapshot. This only changes with the settings that change how Strings are parsed,
+     * the MiniMessage instance and legacy support, so parse results tagged with it stay valid across every other change.
+     * @return The parse generation of this snapshot.
+     */
+    public long getParseGeneration() {
+        return this.parseGeneration;
+    }
+
+    public @NotNull MiniMessage getMiniMessage() {
+        return this.miniMessage;
+    }
+
+    public boolean isEnableLegacy() {
+        return this.enableLegacy;
+    }
+
+    public boolean isAllowEmptyAppend() {
+        return this.allowEmptyAppend;
+    }
+
+    public boolean isAllowEmptyPrepend() {
+        return this.allowEmptyPrepend;
+    }
+
+    public boolean isAllowDebug() {
+        return this.allowDebug;
+    }
+
+    public boolean isCoalesceChatLines() {
+        return this.coalesceChatLines;
+    }
+
+    public @Nullable Diagnostics getDiagnostics() {
+        return this.diagnostics;
+    }
+
+    public @Nullable PlaceholderCache getPlaceholderCache() {
+        return this.placeholderCache;
+    }
+
+    public @NotNull Executor getRenderExecutor() {
+        return this.renderExecutor == null ? MessageLibSettings.defaultRenderExecutor() : this.renderExecutor;
+    }
+
+    /**
+     * Gets the executor completed asynchronous messages are delivered on.
+     * @return The delivery executor, or the main thread executor if none has been set.
+     * @throws IllegalStateException If neither a delivery executor nor a main thread executor has been set.
+     */
+    public @NotNull Executor getDeliveryExecutor() {
+        if (this.deliveryExecutor != null) {
+            return this.deliveryExecutor;
+        }
+        if (this.mainThreadExecutor == null) {
+            throw new IllegalStateException(
+                "No delivery executor is set. Call MessageLibSettings#setMainThreadExecutor(MessageLibSettings.mainThreadExecutor(plugin)) first, or pass an executor explicitly."
+            );
+        }
+        return this.mainThreadExecutor;
+    }
+
+    /**
+     * Gets the executor for work that must happen on the server's main thread.
+     * @return The executor.
+     * @throws IllegalStateException If no main thread executor has been set.
+     */
+    public @NotNull Executor getMainThreadExecutor() {
+        if (this.mainThreadExecutor == null) {
+            throw new IllegalStateException(
+                "No main thread executor is set. Call MessageLibSettings#setMainThreadExecutor(MessageLibSettings.mainThreadExecutor(plugin)) first."
+            );
+        }
+        return this.mainThreadExecutor;
+    }
+
+    /**
+     * @return True if a main thread executor has been set, false otherwise.
+     */
+    public boolean hasMainThreadExecutor() {
+        return this.mainThreadExecutor != null;
+    }
+
+    public @NotNull Set<String> getMainThreadPlaceholders() {
+        return this.mainThreadPlaceholders;
+    }
+
+    public boolean isMainThreadPlaceholder(@NotNull String identifier) {
+        return PlaceholderIdentifiers.matches(this.mainThreadPlaceholders, identifier);
+    }
+
+    @Nullable BoundedCache<String, ParsedString> getParseCache() {
+        return this.parseCache;
+    }
+
+    /**
+     * A parsed String, along with the parse generation of the settings it was parsed with.
+     */
+    record ParsedString(@NotNull Component component, long generation) {}
+
+}
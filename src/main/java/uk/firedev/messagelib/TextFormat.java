@@ -0,0 +1,190 @@
+package uk.firedev.messagelib;
+
+import net.kyori.adventure.text.format.NamedTextColor;
+import net.kyori.adventure.text.format.TextDecoration;
+import net.kyori.adventure.text.minimessage.tag.resolver.TagResolver;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The formats a String can be written in.
+ * <p>
+ * {@link #detect(String, boolean)} classifies a String in one pass over its characters, without parsing it.
+ */
+public enum TextFormat {
+    /**
+     * No markup at all. The String can be used as-is.
+     */
+    PLAIN,
+    /**
+     * Legacy formatting codes using the ampersand character.
+     */
+    LEGACY_AMPERSAND,
+    /**
+     * Legacy formatting codes using the section sign.
+     */
+    LEGACY_SECTION,
+    /**
+     * MiniMessage tags.
+     */
+    MINIMESSAGE;
+
+    private static final char SECTION = '§';
+    private static final char AMPERSAND = '&';
+    private static final String LEGACY_CODES = "0123456789abcdefklmnorx#";
+    private static final String HEX_DIGITS = "0123456789abcdefABCDEF";
+    // Standard tag names grouped by length, so a candidate is only compared against names it could match.
+    private static final String[][] TAG_NAMES = tagNames();
+
+    /**
+     * Detects the format of a String using the current {@link MessageLibSettings}.
+     * @param message The String to check.
+     * @return The detected format.
+     */
+    public static @NotNull TextFormat detect(@NotNull String message) {
+        return detect(message, MessageLibSettings.get().isEnableLegacy());
+    }
+
+    /**
+     * Detects the format of a String.
+     * <p>
+     * When legacy is enabled, a section sign always means {@link #LEGACY_SECTION}, and any recognised MiniMessage tag means {@link #MINIMESSAGE}.
+     * This matches the previous behaviour of comparing the String against its stripped tags.
+     * @param message The String to check.
+     * @param enableLegacy Whether legacy formats should be detected.
+     * @return The detected format.
+     */
+    public static @NotNull TextFormat detect(@NotNull String message, boolean enableLegacy) {
+        if (!enableLegacy) {
+            // Without legacy, only characters that MiniMessage treats specially matter.
+            for (int i = 0; i < message.length(); i++) {
+                char character = message.charAt(i);
+                if (character == '<' || character == '\\') {
+                    return MINIMESSAGE;
+                }
+            }
+            return PLAIN;
+        }
+        boolean ampersand = false;
+        boolean tag = false;
+        int length = message.length();
+        for (int i = 0; i < length; i++) {
+            char character = message.charAt(i);
+            if (character == SECTION) {
+                return LEGACY_SECTION;
+            }
+            if (character == AMPERSAND) {
+                if (!ampersand && i + 1 < length && isLegacyCode(message.charAt(i + 1))) {
+                    ampersand = true;
+                }
+            } else if (character == '<' && !tag) {
+                tag = isTag(message, i);
+            }
+        }
+        if (tag) {
+            return MINIMESSAGE;
+        }
+        return ampersand ? LEGACY_AMPERSAND : PLAIN;
+    }
+
+    private static boolean isLegacyCode(char character) {
+        return LEGACY_CODES.indexOf(Character.toLowerCase(character)) != -1;
+    }
+
+    /**
+     * Checks if a known MiniMessage tag starts at the provided index.
+     */
+    private static boolean isTag(@NotNull String message, int start) {
+        if (start > 0 && message.charAt(start - 1) == '\\') {
+            return false;
+        }
+        int nameStart = start + 1;
+        if (nameStart < message.length() && message.charAt(nameStart) == '/') {
+            nameStart++;
+        }
+        int nameEnd = nameStart;
+        while (nameEnd < message.length()) {
+            char character = message.charAt(nameEnd);
+            if (character == '>' || character == ':') {
+                break;
+            }
+            if (!isTagNameCharacter(character)) {
+                return false;
+            }
+            nameEnd++;
+        }
+        if (nameEnd == nameStart || nameEnd >= message.length() || message.indexOf('>', nameEnd) == -1) {
+            return false;
+        }
+        if (message.charAt(nameStart) == '!') {
+            nameStart++;
+        }
+        return isTagName(message, nameStart, nameEnd - nameStart);
+    }
+
+    /**
+     * Checks if the region of the message is a standard tag name, without copying it.
+     */
+    private static boolean isTagName(@NotNull String message, int offset, int length) {
+        if (length == 7 && message.charAt(offset) == '#') {
+            for (int i = offset + 1; i < offset + length; i++) {
+                if (HEX_DIGITS.indexOf(message.charAt(i)) == -1) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        if (length <= 0 || length >= TAG_NAMES.length) {
+            return false;
+        }
+        for (String name : TAG_NAMES[length]) {
+            if (message.regionMatches(true, offset, name, 0, length)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String[][] tagNames() {
+        Set<String> candidates = new LinkedHashSet<>();
+        candidates.addAll(NamedTextColor.NAMES.keys());
+        candidates.addAll(TextDecoration.NAMES.keys());
+        candidates.addAll(List.of(
+            "color", "colour", "c", "dark_grey", "grey",
+            "b", "i", "em", "u", "st", "obf",
+            "click", "hover", "insert", "insertion", "font", "keybind", "key",
+            "translate", "lang", "tr", "translate_or", "lang_or", "tr_or",
+            "gradient", "rainbow", "transition", "pride", "reset", "newline", "br",
+            "selector", "sel", "score", "nbt", "data"
+        ));
+        // Only keep the names this version of MiniMessage actually resolves.
+        TagResolver standard = TagResolver.standard();
+        List<List<String>> byLength = new ArrayList<>();
+        for (String candidate : candidates) {
+            if (!standard.has(candidate)) {
+                continue;
+            }
+            while (byLength.size() <= candidate.length()) {
+                byLength.add(new ArrayList<>());
+            }
+            byLength.get(candidate.length()).add(candidate);
+        }
+        String[][] names = new String[byLength.size()][];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = byLength.get(i).toArray(String[]::new);
+        }
+        return names;
+    }
+
+    private static boolean isTagNameCharacter(char character) {
+        return (character >= 'a' && character <= 'z')
+            || (character >= 'A' && character <= 'Z')
+            || (character >= '0' && character <= '9')
+            || character == '_' || character == '-' || character == '#' || character == '!' || character == '?';
+    }
+
+}
@@ -1,8 +1,7 @@
 package uk.firedev.messagelib;
 
-import me.clip.placeholderapi.PlaceholderAPI;
 import net.kyori.adventure.text.Component;
-import net.kyori.adventure.text.minimessage.MiniMessage;
+import net.kyori.adventure.text.TextComponent;
 import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
 import net.kyori.adventure.text.serializer.plain.PlainTextComponentSerializer;
 import org.bukkit.Bukkit;
@@ -11,18 +10,24 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import uk.firedev.messagelib.cache.BoundedCache;
 import uk.firedev.messagelib.config.ConfigLoader;
+import uk.firedev.messagelib.diagnostics.Diagnostics;
 import uk.firedev.messagelib.message.ComponentMessage;
 import uk.firedev.messagelib.message.MessageType;
-import uk.firedev.messagelib.placeholders.PAPITagResolver;
+import uk.firedev.messagelib.metrics.MessageLibMetrics;
+import uk.firedev.messagelib.placeholders.PAPIResolver;
 
 import java.util.List;
-import java.util.regex.Matcher;
+import java.util.Map;
 
 public class Utils {
 
     public static final Logger LOGGER = LoggerFactory.getLogger("MessageLib");
     private static final char SECTION = '§';
+    private static final int TEXT_NONE = 0;
+    private static final int TEXT_FOUND = 1;
+    private static final int TEXT_UNKNOWN = 2;
     public static final LegacyComponentSerializer LEGACY_COMPONENT_SERIALIZER = LegacyComponentSerializer.builder()
         .character('&')
         .hexColors()
@@ -53,12 +58,8 @@ public class Utils {
         if (!MessageLibSettings.get().isEnableLegacy()) {
             return false;
         }
-        // If the message contains a section sign, it's definitely legacy.
-        if (message.contains(Character.toString(SECTION))) {
-            return true;
-        }
-        // If no MiniMessage tags get stripped, the message is assumed to be legacy.
-        return MiniMessage.miniMessage().stripTags(message).equals(message);
+        // Plain text has always been handled as legacy, as it contains no MiniMessage tags.
+        return TextFormat.detect(message, true) != TextFormat.MINIMESSAGE;
     }
 
     /**
@@ -70,15 +71,40 @@ public class Utils {
         if (message.isEmpty()) {
             return Component.empty();
         }
-        if (isLegacy(message)) {
-            // Choose the correct serializer
-            LegacyComponentSerializer serializer = message.contains(Character.toString(SECTION))
-                ? LEGACY_COMPONENT_SERIALIZER_SECTION
-                : LEGACY_COMPONENT_SERIALIZER;
-            return serializer.deserialize(message);
-        } else {
-            return MessageLibSettings.get().getMiniMessage().deserialize(message);
+        // Read the settings once, so the cache and the parse always agree on the settings used.
+        SettingsSnapshot settings = MessageLibSettings.get().snapshot();
+        BoundedCache<String, SettingsSnapshot.ParsedString> cache = settings.getParseCache();
+        if (cache == null) {
+            return parseString(message, settings);
+        }
+        long generation = settings.getParseGeneration();
+        SettingsSnapshot.ParsedString cached = cache.getIfValid(message, parsed -> parsed.generation() == generation);
+        if (cached != null) {
+            return cached.component();
         }
+        Component parsed = parseString(message, settings);
+        cache.put(message, new SettingsSnapshot.ParsedString(parsed, generation));
+        return parsed;
+    }
+
+    private static @NotNull Component parseString(@NotNull String message, @NotNull SettingsSnapshot settings) {
+        TextFormat format = TextFormat.detect(message, settings.isEnableLegacy());
+        if (!MessageLibMetrics.isEnabled()) {
+            return parseString(message, format, settings);
+        }
+        long start = System.nanoTime();
+        Component parsed = parseString(message, format, settings);
+        MessageLibMetrics.recordParse(format, System.nanoTime() - start);
+        return parsed;
+    }
+
+    private static @NotNull Component parseString(@NotNull String message, @NotNull TextFormat format, @NotNull SettingsSnapshot settings) {
+        return switch (format) {
+            case PLAIN -> Component.text(message);
+            case LEGACY_AMPERSAND -> LEGACY_COMPONENT_SERIALIZER.deserialize(message);
+            case LEGACY_SECTION -> LEGACY_COMPONENT_SERIALIZER_SECTION.deserialize(message);
+            case MINIMESSAGE -> settings.getMiniMessage().deserialize(message);
+        };
     }
 
     public static @Nullable ComponentMessage getFromConfig(@NotNull ConfigLoader<?> loader, @NotNull String path) {
@@ -93,7 +119,12 @@ public class Utils {
         return finalMessage != null ? finalMessage.messageType(type) : null;
     }
 
-    private static @Nullable ComponentMessage fromObject(@Nullable Object object) {
+    /**
+     * Creates a message from a raw config value, as {@link #getFromConfig(ConfigLoader, String)} does.
+     * @param object The config value. Lists become list messages, and anything else is converted to a String.
+     * @return The message, or null if the value is null.
+     */
+    public static @Nullable ComponentMessage fromObject(@Nullable Object object) {
         if (object == null) {
             return null;
         }
@@ -103,34 +134,93 @@ public class Utils {
         return ComponentMessage.componentMessage(object.toString());
     }
 
+    /**
+     * Resolves PlaceholderAPI placeholders in the provided Component.
+     * @param component The component to resolve placeholders in.
+     * @param player The player to resolve placeholders for. Can be null for non-player specific placeholders.
+     * @return The resolved component, or the same instance if it has no placeholders.
+     */
     public static Component parsePlaceholderAPI(@NotNull Component component, @Nullable OfflinePlayer player) {
+        return parsePlaceholderAPI(component, player, Map.of());
+    }
+
+    /**
+     * Resolves PlaceholderAPI placeholders in the provided Component, using already resolved values where available.
+     * @param component The component to resolve placeholders in.
+     * @param player The player to resolve placeholders for. Can be null for non-player specific placeholders.
+     * @param resolved Values that were already resolved, keyed by identifier.
+     * @return The resolved component, or the same instance if it has no placeholders.
+     */
+    public static Component parsePlaceholderAPI(@NotNull Component component, @Nullable OfflinePlayer player, @NotNull Map<String, Component> resolved) {
         if (!PAPI_AVAILABLE) {
             debug("PlaceholderAPI not found. It's either not installed or not a dependency.");
             return component;
         }
-        MiniMessage mm = MiniMessage.miniMessage();
-        String input = mm.serialize(component);
+        return PAPIResolver.resolve(component, player, resolved);
+    }
 
-        if (!input.contains("%")) {
-            return component;
+    /**
+     * Checks if a Component has no plain text.
+     * <p>
+     * Trees made only of text components are checked without serializing, stopping at the first text found.
+     * @param component The component to check.
+     * @return True if the plain text of the component is empty, false otherwise.
+     */
+    public static boolean isEmpty(@NotNull Component component) {
+        int state = findText(component);
+        if (state == TEXT_UNKNOWN) {
+            return PlainTextComponentSerializer.plainText().serialize(component).isEmpty();
         }
-
-        Matcher matcher = PlaceholderAPI.getPlaceholderPattern().matcher(input);
-        String result = matcher.replaceAll("<papi:$1>");
-
-        return mm.deserialize(result, PAPITagResolver.get(player));
+        return state == TEXT_NONE;
     }
 
-    public static boolean isEmpty(@NotNull Component component) {
-        return PlainTextComponentSerializer.plainText().serialize(component).isEmpty();
+    private static int findText(@NotNull Component component) {
+        int state = TEXT_NONE;
+        if (component instanceof TextComponent text) {
+            if (!text.content().isEmpty()) {
+                return TEXT_FOUND;
+            }
+        } else {
+            // Translatable, keybind, score and selector components all flatten to some text we cannot see here.
+            state = TEXT_UNKNOWN;
+        }
+        for (Component child : component.children()) {
+            int childState = findText(child);
+            if (childState == TEXT_FOUND) {
+                return TEXT_FOUND;
+            }
+            if (childState == TEXT_UNKNOWN) {
+                state = TEXT_UNKNOWN;
+            }
+        }
+        return state;
     }
 
     /**
      * Logs a throwable to console with your provided message.
+     * <p>
+     * If a {@link Diagnostics} buffer is set, the message is recorded into it instead.
      * @param message The message to show alongside the throwable.
      */
     public static void debug(@NotNull String message) {
-        if (!MessageLibSettings.get().isAllowDebug()) {
+        debug(message, message);
+    }
+
+    /**
+     * Logs a throwable to console with your provided message.
+     * <p>
+     * If a {@link Diagnostics} buffer is set, the message is recorded into it instead, rate limited by the provided callsite.
+     * @param callsite A constant key for where the message comes from, so messages with changing details share one rate limit.
+     * @param message The message to show alongside the throwable.
+     */
+    public static void debug(@NotNull String callsite, @NotNull String message) {
+        SettingsSnapshot settings = MessageLibSettings.get().snapshot();
+        Diagnostics diagnostics = settings.getDiagnostics();
+        if (diagnostics != null) {
+            diagnostics.record(callsite, message);
+            return;
+        }
+        if (!settings.isAllowDebug()) {
             return;
         }
         final String errorMessage = "[DEBUG] " + message;
@@ -0,0 +1,166 @@
+package uk.firedev.messagelib.cache;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * A thread-safe cache that evicts its least recently used entry once it grows past a maximum size.
+ * @param <K> The key type.
+ * @param <V> The value type.
+ */
+public class BoundedCache<K, V> {
+
+    private final int maximumSize;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final Map<K, V> entries;
+
+    public BoundedCache(int maximumSize) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("Maximum size must be positive.");
+        }
+        this.maximumSize = maximumSize;
+        this.entries = new LinkedHashMap<>(16, 0.75F, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                if (size() > BoundedCache.this.maximumSize) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Gets a cached value.
+     * @param key The key to look up.
+     * @return The cached value, or null if there is none.
+     */
+    public @Nullable V getIfPresent(@NotNull K key) {
+        V value;
+        synchronized (entries) {
+            value = entries.get(key);
+        }
+        if (value == null) {
+            misses.increment();
+        } else {
+            hits.increment();
+        }
+        return value;
+    }
+
+    /**
+     * Gets a cached value, treating values that fail the provided check as missing.
+     * <p>
+     * Values that fail the check are removed, and the lookup counts as a miss.
+     * @param key The key to look up.
+     * @param valid The check a cached value must pass to be returned.
+     * @return The cached value, or null if there is no valid one.
+     */
+    public @Nullable V getIfValid(@NotNull K key, @NotNull Predicate<? super V> valid) {
+        V value;
+        synchronized (entries) {
+            value = entries.get(key);
+            if (value != null && !valid.test(value)) {
+                entries.remove(key);
+                value = null;
+            }
+        }
+        if (value == null) {
+            misses.increment();
+        } else {
+            hits.increment();
+        }
+        return value;
+    }
+
+    /**
+     * Gets a cached value, loading and caching it if there is none.
+     * <p>
+     * The loader is called without holding the cache's lock, so it may run more than once for the same key under contention.
+     * @param key The key to look up.
+     * @param loader The function to load a missing value with.
+     * @return The cached or loaded value.
+     */
+    public @NotNull V get(@NotNull K key, @NotNull Function<? super K, ? extends V> loader) {
+        V value = getIfPresent(key);
+        if (value != null) {
+            return value;
+        }
+        value = loader.apply(key);
+        put(key, value);
+        return value;
+    }
+
+    /**
+     * Caches a value, evicting the least recently used entry if the cache is full.
+     * @param key The key to cache the value under.
+     * @param value The value to cache.
+     */
+    public void put(@NotNull K key, @NotNull V value) {
+        synchronized (entries) {
+            entries.put(key, value);
+        }
+    }
+
+    /**
+     * Removes a single cached value.
+     * @param key The key to remove.
+     */
+    public void invalidate(@NotNull K key) {
+        synchronized (entries) {
+            entries.remove(key);
+        }
+    }
+
+    /**
+     * Removes every cached value whose key matches the provided filter.
+     * @param filter The filter to match keys against.
+     */
+    public void invalidateIf(@NotNull Predicate<? super K> filter) {
+        synchronized (entries) {
+            entries.keySet().removeIf(filter);
+        }
+    }
+
+    /**
+     * Removes every cached value. Statistics are kept.
+     */
+    public void invalidateAll() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    /**
+     * @return The number of cached values.
+     */
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * @return The maximum number of cached values.
+     */
+    public int getMaximumSize() {
+        return maximumSize;
+    }
+
+    /**
+     * @return A snapshot of this cache's statistics.
+     */
+    public @NotNull CacheStats stats() {
+        return new CacheStats(hits.sum(), misses.sum(), evictions.sum(), size(), maximumSize);
+    }
+
+}
@@ -0,0 +1,39 @@
+package uk.firedev.messagelib.cache;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A point-in-time snapshot of a cache's statistics.
+ * @param hits The number of lookups that found a cached value.
+ * @param misses The number of lookups that did not find a cached value.
+ * @param evictions The number of values removed to stay within the maximum size.
+ * @param size The number of cached values.
+ * @param maximumSize The maximum number of cached values.
+ */
+public record CacheStats(long hits, long misses, long evictions, int size, int maximumSize) {
+
+    private static final CacheStats EMPTY = new CacheStats(0, 0, 0, 0, 0);
+
+    /**
+     * @return Statistics for a cache that is disabled.
+     */
+    public static @NotNull CacheStats empty() {
+        return EMPTY;
+    }
+
+    /**
+     * @return The total number of lookups.
+     */
+    public long requests() {
+        return hits + misses;
+    }
+
+    /**
+     * @return The ratio of lookups that found a cached value, or 0 if there were no lookups.
+     */
+    public double hitRate() {
+        long requests = requests();
+        return requests == 0 ? 0 : (double) hits / requests;
+    }
+
+}
@@ -4,6 +4,7 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.List;
+import java.util.Set;
 
 public interface ConfigLoader<T> {
 
@@ -17,4 +18,16 @@ public interface ConfigLoader<T> {
 
     @Nullable ConfigLoader<T> getSection(@NotNull String path);
 
+    /**
+     * Gets the keys of this config.
+     * <p>
+     * This is a default method so existing loaders keep compiling. Loaders that do not implement it cannot be used to build a
+     * {@link uk.firedev.messagelib.message.MessageBundle}, and the bundle APIs reject them with an {@link IllegalArgumentException} as soon as they are given one.
+     * @param deep Whether to include the full paths of every nested key, instead of only the top level keys.
+     * @return The keys of this config, in the order they appear.
+     */
+    default @NotNull Set<String> getKeys(boolean deep) {
+        throw new UnsupportedOperationException(getClass().getName() + " does not support listing keys.");
+    }
+
 }
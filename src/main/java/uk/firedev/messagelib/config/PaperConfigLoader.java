@@ -5,6 +5,7 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.List;
+import java.util.Set;
 
 public class PaperConfigLoader implements ConfigLoader<ConfigurationSection> {
 
@@ -43,4 +44,9 @@ public class PaperConfigLoader implements ConfigLoader<ConfigurationSection> {
         return new PaperConfigLoader(section);
     }
 
+    @Override
+    public @NotNull Set<String> getKeys(boolean deep) {
+        return config.getKeys(deep);
+    }
+
 }
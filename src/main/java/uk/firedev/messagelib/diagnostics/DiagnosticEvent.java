@@ -0,0 +1,44 @@
+package uk.firedev.messagelib.diagnostics;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Instant;
+
+/**
+ * An event recorded by {@link Diagnostics}.
+ * @param time When the event happened.
+ * @param thread The name of the thread the event happened on.
+ * @param callsite The key the event was rate limited under.
+ * @param message The message of the event.
+ * @param suppressed The number of events from the same callsite that were dropped by the rate limit since the last recorded one.
+ * @param stackTrace Where the event happened, or null if the event was not sampled.
+ */
+public record DiagnosticEvent(
+    @NotNull Instant time,
+    @NotNull String thread,
+    @NotNull String callsite,
+    @NotNull String message,
+    long suppressed,
+    StackTraceElement @Nullable [] stackTrace
+) {
+
+    /**
+     * Formats this event as a single log line, followed by its stack trace if it has one.
+     * @return The formatted event.
+     */
+    public @NotNull String format() {
+        StringBuilder builder = new StringBuilder()
+            .append(time).append(" [").append(thread).append("] ").append(message);
+        if (suppressed > 0) {
+            builder.append(" (").append(suppressed).append(" similar events suppressed)");
+        }
+        if (stackTrace != null) {
+            for (StackTraceElement element : stackTrace) {
+                builder.append(System.lineSeparator()).append("\tat ").append(element);
+            }
+        }
+        return builder.toString();
+    }
+
+}
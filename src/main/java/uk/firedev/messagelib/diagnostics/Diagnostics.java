@@ -0,0 +1,210 @@
+package uk.firedev.messagelib.diagnostics;
+
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records diagnostic events into a fixed size in-memory ring buffer, instead of logging each one.
+ * <p>
+ * Each callsite may only record a limited number of events per window. Events over the limit are counted, not stored,
+ * and the count is attached to that callsite's next recorded event. Stack traces are only captured for sampled events,
+ * so recording an event is cheap enough to leave enabled in production. Once the buffer is full, the oldest events are overwritten.
+ * Use {@link #dump()} or {@link #dump(Logger)} to read the buffer when something goes wrong.
+ */
+public final class Diagnostics {
+
+    // Callsites past this are rate limited together, so dynamic callsites cannot grow the map forever.
+    private static final int MAXIMUM_CALLSITES = 1024;
+    private static final String OVERFLOW_CALLSITE = "<other>";
+    private static final int STACK_TRACE_DEPTH = 32;
+    private static final StackWalker STACK_WALKER = StackWalker.getInstance();
+
+    private final AtomicReferenceArray<DiagnosticEvent> events;
+    private final AtomicLong written = new AtomicLong();
+    private final LongAdder dropped = new LongAdder();
+    private final Map<String, Limiter> limiters = new ConcurrentHashMap<>();
+    private final int perWindow;
+    private final long windowNanos;
+    private final int stackTraceSampling;
+
+    private Diagnostics(int capacity, int perWindow, @NotNull Duration window, int stackTraceSampling) {
+        this.events = new AtomicReferenceArray<>(capacity);
+        this.perWindow = perWindow;
+        this.windowNanos = window.toNanos();
+        this.stackTraceSampling = stackTraceSampling;
+    }
+
+    /**
+     * Creates a ring buffer that records up to 10 events per callsite per second, with a stack trace for every 100th recorded event of a callsite.
+     * @param capacity The number of events to keep.
+     * @return The new buffer.
+     */
+    public static @NotNull Diagnostics diagnostics(int capacity) {
+        return diagnostics(capacity, 10, Duration.ofSeconds(1), 100);
+    }
+
+    /**
+     * Creates a ring buffer for diagnostic events.
+     * @param capacity The number of events to keep.
+     * @param perWindow How many events each callsite may record per window.
+     * @param window The length of the rate limit window.
+     * @param stackTraceSampling Every how many recorded events of a callsite a stack trace is captured, starting with its first. 0 never captures stack traces.
+     * @return The new buffer.
+     */
+    public static @NotNull Diagnostics diagnostics(int capacity, int perWindow, @NotNull Duration window, int stackTraceSampling) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive.");
+        }
+        if (perWindow <= 0) {
+            throw new IllegalArgumentException("Events per window must be positive.");
+        }
+        if (window.isNegative() || window.isZero()) {
+            throw new IllegalArgumentException("Window must be positive.");
+        }
+        if (stackTraceSampling < 0) {
+            throw new IllegalArgumentException("Stack trace sampling must not be negative.");
+        }
+        return new Diagnostics(capacity, perWindow, window, stackTraceSampling);
+    }
+
+    /**
+     * Records an event, rate limited by its message.
+     * @param message The message of the event.
+     */
+    public void record(@NotNull String message) {
+        record(message, message);
+    }
+
+    /**
+     * Records an event, rate limited by the provided callsite.
+     * <p>
+     * Callsites should be constants, such as {@code "cache.read"}, so messages with changing details share one limit.
+     * @param callsite The key to rate limit the event under.
+     * @param message The message of the event.
+     */
+    public void record(@NotNull String callsite, @NotNull String message) {
+        Limiter limiter = limiter(callsite);
+        long suppressed;
+        boolean sampled;
+        synchronized (limiter) {
+            long now = System.nanoTime();
+            if (now - limiter.windowStart >= windowNanos) {
+                limiter.windowStart = now;
+                limiter.inWindow = 0;
+            }
+            if (limiter.inWindow >= perWindow) {
+                limiter.suppressed++;
+                dropped.increment();
+                return;
+            }
+            limiter.inWindow++;
+            suppressed = limiter.suppressed;
+            limiter.suppressed = 0;
+            sampled = stackTraceSampling > 0 && limiter.recorded++ % stackTraceSampling == 0;
+        }
+        DiagnosticEvent event = new DiagnosticEvent(
+            Instant.now(),
+            Thread.currentThread().getName(),
+            callsite,
+            message,
+            suppressed,
+            sampled ? captureStackTrace() : null
+        );
+        events.set((int) (written.getAndIncrement() % events.length()), event);
+    }
+
+    /**
+     * Gets the buffered events.
+     * @return The events, oldest first.
+     */
+    public @NotNull List<DiagnosticEvent> dump() {
+        long end = written.get();
+        long start = Math.max(0, end - events.length());
+        List<DiagnosticEvent> dump = new ArrayList<>((int) (end - start));
+        for (long i = start; i < end; i++) {
+            DiagnosticEvent event = events.get((int) (i % events.length()));
+            // Slots can be overwritten or not yet filled while dumping under load.
+            if (event != null) {
+                dump.add(event);
+            }
+        }
+        dump.sort((first, second) -> first.time().compareTo(second.time()));
+        return dump;
+    }
+
+    /**
+     * Logs the buffered events, oldest first.
+     * @param logger The logger to write to.
+     */
+    public void dump(@NotNull Logger logger) {
+        List<DiagnosticEvent> dump = dump();
+        logger.info("Dumping {} diagnostic events ({} dropped by rate limits):", dump.size(), getDropped());
+        dump.forEach(event -> logger.info("{}", event.format()));
+    }
+
+    /**
+     * Discards every buffered event and resets the rate limits.
+     */
+    public void clear() {
+        for (int i = 0; i < events.length(); i++) {
+            events.set(i, null);
+        }
+        limiters.clear();
+    }
+
+    public int getCapacity() {
+        return events.length();
+    }
+
+    /**
+     * @return The total number of events that were dropped by rate limits.
+     */
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    private @NotNull Limiter limiter(@NotNull String callsite) {
+        Limiter limiter = limiters.get(callsite);
+        if (limiter != null) {
+            return limiter;
+        }
+        if (limiters.size() >= MAXIMUM_CALLSITES) {
+            callsite = OVERFLOW_CALLSITE;
+        }
+        return limiters.computeIfAbsent(callsite, ignored -> new Limiter(System.nanoTime() - windowNanos));
+    }
+
+    // Skips this class's frames, so the trace starts at the code that reported the event.
+    private static StackTraceElement @NotNull [] captureStackTrace() {
+        return STACK_WALKER.walk(frames -> frames
+            .dropWhile(frame -> frame.getClassName().equals(Diagnostics.class.getName()))
+            .limit(STACK_TRACE_DEPTH)
+            .map(StackWalker.StackFrame::toStackTraceElement)
+            .toArray(StackTraceElement[]::new)
+        );
+    }
+
+    private static final class Limiter {
+
+        private long windowStart;
+        private int inWindow;
+        private long suppressed;
+        private long recorded;
+
+        private Limiter(long windowStart) {
+            this.windowStart = windowStart;
+        }
+
+    }
+
+}
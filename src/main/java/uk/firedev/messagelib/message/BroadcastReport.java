@@ -0,0 +1,24 @@
+package uk.firedev.messagelib.message;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Duration;
+
+/**
+ * The outcome of a personalized broadcast.
+ * @param recipients The number of audiences the message was rendered for.
+ * @param skipped The number of audiences whose renderer returned null on purpose. These audiences are not sent anything.
+ * @param failed The number of audiences whose render or send threw an exception. Each failure is logged.
+ * @param renderTime The time from starting the broadcast until every render finished.
+ * @param deliveryTime The time spent sending the rendered messages.
+ */
+public record BroadcastReport(int recipients, int skipped, int failed, @NotNull Duration renderTime, @NotNull Duration deliveryTime) {
+
+    /**
+     * @return The number of audiences that were sent their rendered message.
+     */
+    public int delivered() {
+        return recipients - skipped - failed;
+    }
+
+}
@@ -1,6 +1,6 @@
 package uk.firedev.messagelib.message;
 
-import jdk.jfr.StackTrace;
+import com.google.gson.JsonIOException;
 import net.kyori.adventure.audience.Audience;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.JoinConfiguration;
@@ -8,37 +8,69 @@ import net.kyori.adventure.text.minimessage.MiniMessage;
 import net.kyori.adventure.text.serializer.gson.GsonComponentSerializer;
 import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
 import net.kyori.adventure.text.serializer.plain.PlainTextComponentSerializer;
-import org.bukkit.Bukkit;
 import org.bukkit.OfflinePlayer;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import uk.firedev.messagelib.MessageLibSettings;
 import uk.firedev.messagelib.ObjectProcessor;
 import uk.firedev.messagelib.Utils;
+import uk.firedev.messagelib.placeholders.PlaceholderIndex;
+import uk.firedev.messagelib.replacer.PreparedReplacer;
 import uk.firedev.messagelib.replacer.Replacer;
 
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.Supplier;
 
 // NEEDS TO BE IMMUTABLE - any change makes a new instance.
 public class ComponentListMessage extends ComponentMessage {
 
-    private final List<Component> message = new ArrayList<>();
+    private final List<Component> message;
     private final MessageType messageType;
 
+    // Lazily computed from the immutable message.
+    private volatile @Nullable List<String> json = null;
+    private volatile @Nullable List<String> legacy = null;
+    private volatile @Nullable MiniMessageForm<List<String>> miniMessage = null;
+    private volatile @Nullable List<PlaceholderIndex> lineIndexes = null;
+    private volatile @Nullable PlaceholderIndex placeholders = null;
+    private volatile @Nullable Component joined = null;
+
     protected ComponentListMessage(@NotNull List<Component> message, @NotNull MessageType messageType) {
-        message.forEach(component -> this.message.add(ROOT.append(component).compact()));
+        this.message = new ArrayList<>(message.size());
+        message.forEach(component -> this.message.add(ComponentMessage.normalize(component)));
         this.messageType = messageType;
     }
 
     protected ComponentListMessage(@NotNull Component message, @NotNull MessageType messageType) {
-        this.message.add(ComponentMessage.ROOT.append(message).compact());
+        this.message = new ArrayList<>(1);
+        this.message.add(ComponentMessage.normalize(message));
+        this.messageType = messageType;
+    }
+
+    // Takes the type first to stay distinct from the public constructor, as it trusts the lines are already normalized.
+    private ComponentListMessage(@NotNull MessageType messageType, @NotNull List<Component> message) {
+        // The list is owned by this message from now on, so it is not copied.
+        this.message = message;
         this.messageType = messageType;
     }
 
+    /**
+     * Creates a message from components that are already normalized, skipping the check.
+     * The list must not be changed afterwards.
+     */
+    static @NotNull ComponentListMessage normalized(@NotNull List<Component> message, @NotNull MessageType messageType) {
+        return new ComponentListMessage(messageType, message);
+    }
+
     // Message Getters
 
     /**
@@ -50,6 +82,15 @@ public class ComponentListMessage extends ComponentMessage {
         return new ArrayList<>(message);
     }
 
+    /**
+     * Passes each line of the underlying message to the provided consumer, without copying the message.
+     *
+     * @param consumer The consumer to receive each line, in order.
+     */
+    public void forEachLine(@NotNull Consumer<? super Component> consumer) {
+        message.forEach(consumer);
+    }
+
     /**
      * Gets the underlying message as plain text.
      *
@@ -67,9 +108,14 @@ public class ComponentListMessage extends ComponentMessage {
      * @return The underlying message as JSON.
      */
     public @NotNull List<String> getAsJson() {
-        return message.stream()
-            .map(component -> GsonComponentSerializer.gson().serialize(component))
-            .toList();
+        List<String> json = this.json;
+        if (json == null) {
+            json = message.stream()
+                .map(component -> GsonComponentSerializer.gson().serialize(component))
+                .toList();
+            this.json = json;
+        }
+        return json;
     }
 
     /**
@@ -78,9 +124,14 @@ public class ComponentListMessage extends ComponentMessage {
      * @return The underlying message as Legacy text.
      */
     public @NotNull List<String> getAsLegacy() {
-        return message.stream()
-            .map(component -> LegacyComponentSerializer.legacySection().serialize(component))
-            .toList();
+        List<String> legacy = this.legacy;
+        if (legacy == null) {
+            legacy = message.stream()
+                .map(component -> LegacyComponentSerializer.legacySection().serialize(component))
+                .toList();
+            this.legacy = legacy;
+        }
+        return legacy;
     }
 
     /**
@@ -90,9 +141,108 @@ public class ComponentListMessage extends ComponentMessage {
      */
     public @NotNull List<String> getAsMiniMessage() {
         MiniMessage mm = MessageLibSettings.get().getMiniMessage();
-        return message.stream()
-            .map(mm::serialize)
-            .toList();
+        MiniMessageForm<List<String>> form = this.miniMessage;
+        // The cached form is only valid for the MiniMessage instance that produced it.
+        if (form == null || form.miniMessage() != mm) {
+            form = new MiniMessageForm<>(
+                mm,
+                message.stream()
+                    .map(mm::serialize)
+                    .toList()
+            );
+            this.miniMessage = form;
+        }
+        return form.value();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The lines are written as a JSON array.
+     */
+    @Override
+    public void writeJson(@NotNull Appendable output) throws IOException {
+        List<String> json = this.json;
+        output.append('[');
+        for (int i = 0; i < message.size(); i++) {
+            if (i > 0) {
+                output.append(',');
+            }
+            if (json != null) {
+                output.append(json.get(i));
+                continue;
+            }
+            try {
+                GsonComponentSerializer.gson().serializer().toJson(message.get(i), Component.class, output);
+            } catch (JsonIOException exception) {
+                throw exception.getCause() instanceof IOException ioException ? ioException : new IOException(exception);
+            }
+        }
+        output.append(']');
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The lines are written as a JSON array.
+     */
+    @Override
+    public int writeJson(@NotNull ByteBuffer output) {
+        int start = output.position();
+        try {
+            encode("[", output);
+            List<String> json = getAsJson();
+            for (int i = 0; i < json.size(); i++) {
+                if (i > 0) {
+                    encode(",", output);
+                }
+                encode(json.get(i), output);
+            }
+            encode("]", output);
+        } catch (BufferOverflowException exception) {
+            output.position(start);
+            throw exception;
+        }
+        return output.position() - start;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The lines are separated by newlines.
+     */
+    @Override
+    public void writeLegacy(@NotNull Appendable output) throws IOException {
+        List<String> legacy = getAsLegacy();
+        for (int i = 0; i < legacy.size(); i++) {
+            if (i > 0) {
+                output.append('\n');
+            }
+            output.append(legacy.get(i));
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The lines are separated by newlines.
+     */
+    @Override
+    public int writeLegacy(@NotNull ByteBuffer output) {
+        int start = output.position();
+        try {
+            List<String> legacy = getAsLegacy();
+            for (int i = 0; i < legacy.size(); i++) {
+                if (i > 0) {
+                    encode("\n", output);
+                }
+                encode(legacy.get(i), output);
+            }
+        } catch (BufferOverflowException exception) {
+            output.position(start);
+            throw exception;
+        }
+        return output.position() - start;
     }
 
     // Class Methods
@@ -102,10 +252,7 @@ public class ComponentListMessage extends ComponentMessage {
      */
     @Override
     public ComponentListMessage createCopy() {
-        return new ComponentListMessage(
-            List.copyOf(this.message),
-            messageType
-        );
+        return normalized(this.message, messageType);
     }
 
     /**
@@ -121,7 +268,7 @@ public class ComponentListMessage extends ComponentMessage {
      */
     @Override
     public ComponentListMessage messageType(@NotNull MessageType messageType) {
-        return new ComponentListMessage(message, messageType);
+        return normalized(message, messageType);
     }
 
     /**
@@ -134,12 +281,8 @@ public class ComponentListMessage extends ComponentMessage {
             return this;
         }
         List<Component> newMessage = new ArrayList<>(message);
-        newMessage.addAll(
-            ObjectProcessor.process(append).stream()
-                .map(ROOT::append)
-                .toList()
-        );
-        return new ComponentListMessage(newMessage, messageType);
+        ObjectProcessor.process(append, line -> newMessage.add(ComponentMessage.normalize(line)));
+        return normalized(newMessage, messageType);
     }
 
     /**
@@ -169,13 +312,10 @@ public class ComponentListMessage extends ComponentMessage {
             Utils.debug("Cannot prepend to empty ComponentListMessage");
             return this;
         }
-        List<Component> newMessage = new ArrayList<>(
-            ObjectProcessor.process(prepend).stream()
-                .map(ROOT::append)
-                .toList()
-        );
+        List<Component> newMessage = new ArrayList<>();
+        ObjectProcessor.process(prepend, line -> newMessage.add(ComponentMessage.normalize(line)));
         newMessage.addAll(message);
-        return new ComponentListMessage(newMessage, messageType);
+        return normalized(newMessage, messageType);
     }
 
     /**
@@ -201,8 +341,7 @@ public class ComponentListMessage extends ComponentMessage {
      */
     @Override
     public ComponentListMessage replace(@NotNull String placeholder, @Nullable Object replacement) {
-        Replacer replacer = Replacer.replacer().addReplacement(placeholder, replacement);
-        return new ComponentListMessage(replacer.apply(message), messageType);
+        return replaceLines(List.of(placeholder), () -> Replacer.replacer().addReplacement(placeholder, replacement).prepare());
     }
 
     /**
@@ -223,8 +362,7 @@ public class ComponentListMessage extends ComponentMessage {
      */
     @Override
     public ComponentListMessage replace(@NotNull Map<String, ?> replacements) {
-        Replacer replacer = Replacer.replacer().addReplacements(replacements);
-        return new ComponentListMessage(replacer.apply(message), messageType);
+        return replaceLines(replacements.keySet(), () -> Replacer.replacer().addReplacements(replacements).prepare());
     }
 
     /**
@@ -247,7 +385,7 @@ public class ComponentListMessage extends ComponentMessage {
         if (replacer == null) {
             return this;
         }
-        return new ComponentListMessage(replacer.apply(message), messageType);
+        return replaceLines(replacer.getReplacements().keySet(), replacer::prepare);
     }
 
     /**
@@ -264,21 +402,98 @@ public class ComponentListMessage extends ComponentMessage {
         return new ComponentListMessage(replacer.applyWithListInsertion(message), messageType);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ComponentListMessage replacePrepared(@Nullable PreparedReplacer replacer) {
+        if (replacer == null || replacer.isEmpty()) {
+            return this;
+        }
+        return replaceLines(replacer.getReplacements().keySet(), () -> replacer);
+    }
+
+    /**
+     * Applies the specified PreparedReplacer to the message.
+     * <p>
+     * If a placeholder is found on any line, the replacement list will be inserted in its place.
+     * @param replacer The PreparedReplacer to apply.
+     * @return A new ComponentMessage with the replacements made.
+     */
+    public ComponentListMessage replacePreparedWithListInsertion(@Nullable PreparedReplacer replacer) {
+        if (replacer == null || replacer.isEmpty()) {
+            return this;
+        }
+        return new ComponentListMessage(replacer.applyWithListInsertion(message), messageType);
+    }
+
     /**
      * {@inheritDoc}
      */
     @Override
     public ComponentListMessage parsePlaceholderAPI(@Nullable OfflinePlayer player) {
-        if (!Utils.PAPI_AVAILABLE) {
+        return parsePlaceholderAPI(player, Map.of());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    ComponentListMessage parsePlaceholderAPI(@Nullable OfflinePlayer player, @NotNull Map<String, Component> resolved) {
+        if (!Utils.PAPI_AVAILABLE || !placeholders().hasPlaceholderAPI()) {
             return this;
         }
 
-        return new ComponentListMessage(
-            message.stream()
-                .map(component -> Utils.parsePlaceholderAPI(component, player))
-                .toList(),
-            messageType
-        );
+        List<PlaceholderIndex> indexes = lineIndexes();
+        List<Component> parsed = new ArrayList<>(message.size());
+        boolean changed = false;
+        for (int i = 0; i < message.size(); i++) {
+            Component line = message.get(i);
+            Component parsedLine = indexes.get(i).hasPlaceholderAPI() ? Utils.parsePlaceholderAPI(line, player, resolved) : line;
+            changed |= parsedLine != line;
+            parsed.add(parsedLine);
+        }
+        return changed ? new ComponentListMessage(parsed, messageType) : this;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public @NotNull PlaceholderIndex placeholders() {
+        PlaceholderIndex placeholders = this.placeholders;
+        if (placeholders == null) {
+            placeholders = PlaceholderIndex.combine(lineIndexes());
+            this.placeholders = placeholders;
+        }
+        return placeholders;
+    }
+
+    private @NotNull List<PlaceholderIndex> lineIndexes() {
+        List<PlaceholderIndex> lineIndexes = this.lineIndexes;
+        if (lineIndexes == null) {
+            lineIndexes = message.stream().map(PlaceholderIndex::placeholderIndex).toList();
+            this.lineIndexes = lineIndexes;
+        }
+        return lineIndexes;
+    }
+
+    // Only the lines that contain a placeholder are replaced, and the replacements are only resolved if one does.
+    private @NotNull ComponentListMessage replaceLines(@NotNull Collection<String> placeholders, @NotNull Supplier<PreparedReplacer> replacerSupplier) {
+        List<PlaceholderIndex> indexes = lineIndexes();
+        PreparedReplacer replacer = null;
+        List<Component> replaced = new ArrayList<>(message.size());
+        for (int i = 0; i < message.size(); i++) {
+            Component line = message.get(i);
+            if (indexes.get(i).containsAny(placeholders)) {
+                if (replacer == null) {
+                    replacer = replacerSupplier.get();
+                }
+                line = ComponentMessage.normalize(replacer.apply(line));
+            }
+            replaced.add(line);
+        }
+        return replacer == null ? this : normalized(replaced, messageType);
     }
 
     /**
@@ -344,6 +559,10 @@ public class ComponentListMessage extends ComponentMessage {
         if (isEmpty()) {
             return;
         }
+        if (coalesce(messageType)) {
+            messageType.send(audience, joined());
+            return;
+        }
         message.forEach(component -> messageType.send(audience, component));
     }
 
@@ -379,7 +598,25 @@ public class ComponentListMessage extends ComponentMessage {
         if (isEmpty()) {
             return;
         }
-        message.forEach(Bukkit::broadcast);
+        if (coalesce(MessageType.CHAT)) {
+            MessageType.broadcast(joined());
+            return;
+        }
+        message.forEach(MessageType::broadcast);
+    }
+
+    // Only chat shows several lines of one message, so other types are always sent line by line.
+    private boolean coalesce(@NotNull MessageType type) {
+        return type == MessageType.CHAT && message.size() > 1 && MessageLibSettings.get().isCoalesceChatLines();
+    }
+
+    private @NotNull Component joined() {
+        Component joined = this.joined;
+        if (joined == null) {
+            joined = Component.join(JoinConfiguration.newlines(), message);
+            this.joined = joined;
+        }
+        return joined;
     }
 
 }
@@ -3,18 +3,41 @@ package uk.firedev.messagelib.message;
 import net.kyori.adventure.audience.Audience;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.JoinConfiguration;
+import net.kyori.adventure.text.TextComponent;
+import net.kyori.adventure.text.format.NamedTextColor;
 import net.kyori.adventure.text.format.Style;
 import net.kyori.adventure.text.format.TextDecoration;
+import net.kyori.adventure.text.minimessage.MiniMessage;
 import org.bukkit.OfflinePlayer;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
+import uk.firedev.messagelib.MessageLibSettings;
 import uk.firedev.messagelib.ObjectProcessor;
+import uk.firedev.messagelib.SettingsSnapshot;
 import uk.firedev.messagelib.Utils;
 import uk.firedev.messagelib.config.ConfigLoader;
+import uk.firedev.messagelib.placeholders.PAPIResolver;
+import uk.firedev.messagelib.placeholders.PlaceholderIndex;
+import uk.firedev.messagelib.replacer.PreparedReplacer;
 import uk.firedev.messagelib.replacer.Replacer;
 
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 
 public abstract class ComponentMessage {
 
@@ -28,6 +51,70 @@ public abstract class ComponentMessage {
 
     protected ComponentMessage() {}
 
+    /**
+     * Brings a component into the form every message stores: a text component with no content, carrying the {@link #ROOT} style, with the message as its children.
+     * <p>
+     * The fallback style is applied and the tree compacted only once. A component already in this form is returned as-is,
+     * so transformations of an existing message skip the work, and appending or prepending never nests more wrappers.
+     *
+     * @param component The component to normalize.
+     * @return The normalized component.
+     */
+    static @NotNull Component normalize(@NotNull Component component) {
+        if (isNormalized(component)) {
+            return component;
+        }
+        Component compacted = component.compact();
+        if (compacted instanceof TextComponent text && text.content().isEmpty()) {
+            return compacted.applyFallbackStyle(ROOT.style());
+        }
+        // Move the root's style onto the container, so its children keep inheriting it.
+        return Component.text()
+            .style(compacted.style().merge(ROOT.style(), Style.Merge.Strategy.IF_ABSENT_ON_TARGET))
+            .append(compacted.style(Style.empty()))
+            .build();
+    }
+
+    /**
+     * Checks if a component is already in the form {@link #normalize(Component)} produces.
+     */
+    static boolean isNormalized(@NotNull Component component) {
+        if (!(component instanceof TextComponent text) || !text.content().isEmpty()) {
+            return false;
+        }
+        // Every property ROOT sets must already be present, otherwise the fallback still needs applying.
+        Style style = text.style();
+        return style.color() != null && style.decoration(TextDecoration.ITALIC) != TextDecoration.State.NOT_SET;
+    }
+
+    /**
+     * A serialized form that is only valid for the MiniMessage instance that produced it.
+     */
+    record MiniMessageForm<T>(@NotNull MiniMessage miniMessage, @NotNull T value) {}
+
+    // Encoders are stateful, so each thread reuses its own.
+    private static final ThreadLocal<CharsetEncoder> UTF_8_ENCODER = ThreadLocal.withInitial(StandardCharsets.UTF_8::newEncoder);
+
+    /**
+     * Encodes text as UTF-8 into a buffer.
+     *
+     * @return The number of bytes written.
+     * @throws BufferOverflowException If the buffer does not have enough space. The buffer's position is left unchanged.
+     */
+    static int encode(@NotNull CharSequence text, @NotNull ByteBuffer output) {
+        int start = output.position();
+        CharsetEncoder encoder = UTF_8_ENCODER.get().reset();
+        CoderResult result = encoder.encode(CharBuffer.wrap(text), output, true);
+        if (!result.isOverflow()) {
+            result = encoder.flush(output);
+        }
+        if (result.isOverflow()) {
+            output.position(start);
+            throw new BufferOverflowException();
+        }
+        return output.position() - start;
+    }
+
     // Single Messages
 
     public static @NotNull ComponentSingleMessage componentMessage(@NotNull Component message, @NotNull MessageType messageType) {
@@ -63,12 +150,10 @@ public abstract class ComponentMessage {
     // List Messages
 
     public static @NotNull ComponentListMessage componentMessage(@NotNull List<?> message, @NotNull MessageType messageType) {
-        return new ComponentListMessage(
-            message.stream()
-                .flatMap(object -> ObjectProcessor.process(object).stream())
-                .toList(),
-            messageType
-        );
+        // Lines are normalized as they are processed, so no intermediate lists are needed.
+        List<Component> lines = new ArrayList<>(message.size());
+        ObjectProcessor.process(message, line -> lines.add(normalize(line)));
+        return ComponentListMessage.normalized(lines, messageType);
     }
 
     public static @NotNull ComponentListMessage componentMessage(@NotNull List<?> message) {
@@ -93,6 +178,161 @@ public abstract class ComponentMessage {
 
     // Abstract Things
 
+    // Asynchronous Rendering
+
+    /**
+     * Loads a message from the provided config on {@link MessageLibSettings#getRenderExecutor()}.
+     *
+     * @param loader The config to load from.
+     * @param path The path of the message.
+     * @return A future that completes with the loaded message, or null if there is no message at the path.
+     */
+    public static @NotNull CompletableFuture<@Nullable ComponentMessage> componentMessageAsync(@NotNull ConfigLoader<?> loader, @NotNull String path) {
+        return CompletableFuture.supplyAsync(() -> Utils.getFromConfig(loader, path), MessageLibSettings.get().getRenderExecutor());
+    }
+
+    /**
+     * Runs the provided pipeline on this message on {@link MessageLibSettings#getRenderExecutor()}.
+     * <p>
+     * As messages are immutable, the pipeline can safely be run while this message is used elsewhere.
+     * PlaceholderAPI placeholders should be parsed with {@link #parsePlaceholderAPIAsync(OfflinePlayer)}, so main thread placeholders are handled.
+     *
+     * @param pipeline The operations to run, such as {@code message -> message.replace(replacer).append(suffix)}.
+     * @return A future that completes with the rendered message.
+     */
+    public @NotNull CompletableFuture<ComponentMessage> renderAsync(@NotNull Function<? super ComponentMessage, ? extends ComponentMessage> pipeline) {
+        return CompletableFuture.supplyAsync(() -> pipeline.apply(this), MessageLibSettings.get().getRenderExecutor());
+    }
+
+    /**
+     * Applies the specified Replacer to the message on {@link MessageLibSettings#getRenderExecutor()}.
+     * <p>
+     * The replacements are copied before returning, so the Replacer can be changed straight away.
+     *
+     * @param replacer The Replacer to apply.
+     * @return A future that completes with a new ComponentMessage with the replacements made.
+     */
+    public @NotNull CompletableFuture<ComponentMessage> replaceAsync(@Nullable Replacer replacer) {
+        if (replacer == null) {
+            return CompletableFuture.completedFuture(this);
+        }
+        return replaceAsync(replacer.getReplacements());
+    }
+
+    /**
+     * Replaces all instances of the specified placeholders with the specified replacements on {@link MessageLibSettings#getRenderExecutor()}.
+     * <p>
+     * The replacements are copied before returning, so the map can be changed straight away.
+     *
+     * @param replacements A map of placeholders to replacements. Explicitly supports {@link Component} and {@link ComponentSingleMessage} as values. Anything else will be converted to a String and processed.
+     * @return A future that completes with a new ComponentMessage with the replacements made.
+     */
+    public @NotNull CompletableFuture<ComponentMessage> replaceAsync(@NotNull Map<String, ?> replacements) {
+        Map<String, ?> copy = new HashMap<>(replacements);
+        return renderAsync(message -> message.replace(copy));
+    }
+
+    /**
+     * Parses PlaceholderAPI placeholders in the message for the specified player on {@link MessageLibSettings#getRenderExecutor()}.
+     * <p>
+     * Placeholders marked with {@link MessageLibSettings#addMainThreadPlaceholders(String...)} are resolved on
+     * {@link MessageLibSettings#getMainThreadExecutor()} first, then the rest are resolved on the render executor.
+     * They are never resolved off the main thread.
+     *
+     * @param player The player to parse placeholders for. Can be null for non-player specific placeholders.
+     * @return A future that completes with a new ComponentMessage with the parsed placeholders.
+     * @throws IllegalStateException If the message contains main thread placeholders, but no main thread executor has been set.
+     */
+    public @NotNull CompletableFuture<ComponentMessage> parsePlaceholderAPIAsync(@Nullable OfflinePlayer player) {
+        if (!Utils.PAPI_AVAILABLE || !placeholders().hasPlaceholderAPI()) {
+            return CompletableFuture.completedFuture(this);
+        }
+        SettingsSnapshot settings = MessageLibSettings.get().snapshot();
+        List<String> mainThread = placeholders().getPlaceholderAPI().stream()
+            .filter(settings::isMainThreadPlaceholder)
+            .toList();
+        if (mainThread.isEmpty()) {
+            return renderAsync(message -> message.parsePlaceholderAPI(player));
+        }
+        // Read before anything is scheduled, so a missing executor fails here rather than resolving off the main thread.
+        Executor mainThreadExecutor = settings.getMainThreadExecutor();
+        return CompletableFuture.supplyAsync(() -> {
+                Map<String, Component> resolved = new HashMap<>();
+                mainThread.forEach(identifier -> resolved.put(identifier, PAPIResolver.resolvePlaceholder(player, identifier)));
+                return resolved;
+            }, mainThreadExecutor)
+            .thenApplyAsync(resolved -> parsePlaceholderAPI(player, resolved), settings.getRenderExecutor());
+    }
+
+    /**
+     * Sends a message to the audience once it has finished rendering, on {@link MessageLibSettings#getDeliveryExecutor()}.
+     *
+     * @param message The message being rendered.
+     * @param audience The audience to send to.
+     * @return A future that completes once the message has been sent.
+     * @throws IllegalStateException If neither a delivery executor nor a main thread executor has been set.
+     */
+    public static @NotNull CompletableFuture<Void> sendWhenComplete(@NotNull CompletionStage<? extends ComponentMessage> message, @Nullable Audience audience) {
+        return message.thenAcceptAsync(rendered -> rendered.send(audience), MessageLibSettings.get().getDeliveryExecutor()).toCompletableFuture();
+    }
+
+    /**
+     * Sends a message to the audiences once it has finished rendering, on {@link MessageLibSettings#getDeliveryExecutor()}.
+     *
+     * @param message The message being rendered.
+     * @param audienceList The audiences to send to.
+     * @return A future that completes once the message has been sent.
+     * @throws IllegalStateException If neither a delivery executor nor a main thread executor has been set.
+     */
+    public static @NotNull CompletableFuture<Void> sendWhenComplete(@NotNull CompletionStage<? extends ComponentMessage> message, @NotNull List<? extends Audience> audienceList) {
+        List<? extends Audience> audiences = new ArrayList<>(audienceList);
+        return message.thenAcceptAsync(rendered -> rendered.send(audiences), MessageLibSettings.get().getDeliveryExecutor()).toCompletableFuture();
+    }
+
+    /**
+     * Broadcasts a message once it has finished rendering, on {@link MessageLibSettings#getDeliveryExecutor()}.
+     *
+     * @param message The message being rendered.
+     * @return A future that completes once the message has been broadcast.
+     * @throws IllegalStateException If neither a delivery executor nor a main thread executor has been set.
+     */
+    public static @NotNull CompletableFuture<Void> broadcastWhenComplete(@NotNull CompletionStage<? extends ComponentMessage> message) {
+        return message.thenAcceptAsync(ComponentMessage::broadcast, MessageLibSettings.get().getDeliveryExecutor()).toCompletableFuture();
+    }
+
+    // Personalized Sending
+
+    /**
+     * Renders this message for each audience in parallel, then sends each audience their own rendered message.
+     * <p>
+     * Rendering happens on {@link MessageLibSettings#getRenderExecutor()} and sending on {@link MessageLibSettings#getDeliveryExecutor()}.
+     * The renderer must be safe to call from several threads at once.
+     *
+     * @param audiences The audiences to send to.
+     * @param renderer The function that renders this message for an audience. Returning null skips that audience.
+     * @return A future that completes with the timings once every audience has been sent to.
+     * @throws IllegalStateException If neither a delivery executor nor a main thread executor has been set.
+     */
+    public @NotNull CompletableFuture<BroadcastReport> sendPersonalized(@NotNull List<? extends Audience> audiences, @NotNull BiFunction<? super ComponentMessage, ? super Audience, ? extends @Nullable ComponentMessage> renderer) {
+        SettingsSnapshot settings = MessageLibSettings.get().snapshot();
+        return sendPersonalized(audiences, renderer, settings.getRenderExecutor(), settings.getDeliveryExecutor());
+    }
+
+    /**
+     * Renders this message for each audience in parallel, then sends each audience their own rendered message.
+     * <p>
+     * The renderer must be safe to call from several threads at once.
+     *
+     * @param audiences The audiences to send to.
+     * @param renderer The function that renders this message for an audience. Returning null skips that audience.
+     * @param renderExecutor The executor to render on.
+     * @param deliveryExecutor The executor to send on.
+     * @return A future that completes with the timings once every audience has been sent to.
+     */
+    public @NotNull CompletableFuture<BroadcastReport> sendPersonalized(@NotNull List<? extends Audience> audiences, @NotNull BiFunction<? super ComponentMessage, ? super Audience, ? extends @Nullable ComponentMessage> renderer, @NotNull Executor renderExecutor, @NotNull Executor deliveryExecutor) {
+        return PersonalizedBroadcast.broadcast(this, audiences.stream().filter(Objects::nonNull).toList(), renderer, renderExecutor, deliveryExecutor);
+    }
+
     /**
      * Turns this ComponentMessage into a ComponentSingleMessage.
      */
@@ -185,6 +425,58 @@ public abstract class ComponentMessage {
      */
     public abstract ComponentMessage replace(@Nullable Replacer replacer);
 
+    /**
+     * Applies the specified PreparedReplacer to the message.
+     * @param replacer The PreparedReplacer to apply.
+     * @return A new ComponentMessage with the replacements made.
+     */
+    public ComponentMessage replacePrepared(@Nullable PreparedReplacer replacer) {
+        if (replacer == null || replacer.isEmpty()) {
+            return this;
+        }
+        return replace(replacer.getReplacements());
+    }
+
+    /**
+     * Writes the message as JSON directly to the provided output.
+     * <p>
+     * If the JSON has not been cached yet, it is streamed without building an intermediate String.
+     *
+     * @param output The output to write to.
+     * @throws IOException If the output fails to accept the JSON.
+     */
+    public abstract void writeJson(@NotNull Appendable output) throws IOException;
+
+    /**
+     * Writes the message as UTF-8 encoded JSON to the provided buffer.
+     * <p>
+     * The text is built as a String first, or taken from the cached form, so this is not allocation-free.
+     *
+     * @param output The buffer to write to.
+     * @return The number of bytes written.
+     * @throws BufferOverflowException If the buffer does not have enough space. The buffer's position is left unchanged.
+     */
+    public abstract int writeJson(@NotNull ByteBuffer output);
+
+    /**
+     * Writes the message as Legacy text to the provided output.
+     *
+     * @param output The output to write to.
+     * @throws IOException If the output fails to accept the text.
+     */
+    public abstract void writeLegacy(@NotNull Appendable output) throws IOException;
+
+    /**
+     * Writes the message as UTF-8 encoded Legacy text to the provided buffer.
+     * <p>
+     * The text is built as a String first, or taken from the cached form, so this is not allocation-free.
+     *
+     * @param output The buffer to write to.
+     * @return The number of bytes written.
+     * @throws BufferOverflowException If the buffer does not have enough space. The buffer's position is left unchanged.
+     */
+    public abstract int writeLegacy(@NotNull ByteBuffer output);
+
     /**
      * Parses PlaceholderAPI placeholders in the message for the specified player.
      * If PlaceholderAPI is not installed, the message is returned unchanged.
@@ -194,6 +486,24 @@ public abstract class ComponentMessage {
      */
     public abstract ComponentMessage parsePlaceholderAPI(@Nullable OfflinePlayer player);
 
+    /**
+     * Parses PlaceholderAPI placeholders in the message for the specified player, using already resolved values where available.
+     *
+     * @param player The player to parse placeholders for. Can be null for non-player specific placeholders.
+     * @param resolved Values that were already resolved, keyed by identifier.
+     * @return A new ComponentMessage with the parsed placeholders.
+     */
+    abstract ComponentMessage parsePlaceholderAPI(@Nullable OfflinePlayer player, @NotNull Map<String, Component> resolved);
+
+    /**
+     * Gets the replaceable text and PlaceholderAPI placeholders of the message.
+     * <p>
+     * The index is computed the first time it is needed and kept for the lifetime of the message.
+     *
+     * @return The placeholder index of the message.
+     */
+    public abstract @NotNull PlaceholderIndex placeholders();
+
     /**
      * Checks if the underlying plain text is empty.
      * @return True if the underlying plain text is empty, false otherwise.
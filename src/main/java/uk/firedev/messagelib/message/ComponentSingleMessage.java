@@ -1,21 +1,27 @@
 package uk.firedev.messagelib.message;
 
+import com.google.gson.JsonIOException;
 import net.kyori.adventure.audience.Audience;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.JoinConfiguration;
+import net.kyori.adventure.text.format.Style;
 import net.kyori.adventure.text.minimessage.MiniMessage;
 import net.kyori.adventure.text.serializer.gson.GsonComponentSerializer;
 import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
 import net.kyori.adventure.text.serializer.plain.PlainTextComponentSerializer;
-import org.bukkit.Bukkit;
 import org.bukkit.OfflinePlayer;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import uk.firedev.messagelib.MessageLibSettings;
 import uk.firedev.messagelib.ObjectProcessor;
 import uk.firedev.messagelib.Utils;
+import uk.firedev.messagelib.placeholders.PlaceholderIndex;
+import uk.firedev.messagelib.replacer.PreparedReplacer;
 import uk.firedev.messagelib.replacer.Replacer;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
@@ -27,11 +33,32 @@ public class ComponentSingleMessage extends ComponentMessage {
     private final Component message;
     private final MessageType messageType;
 
+    // Lazily computed from the immutable message.
+    private volatile @Nullable String plainText = null;
+    private volatile @Nullable Boolean empty = null;
+    private volatile @Nullable String json = null;
+    private volatile @Nullable String legacy = null;
+    private volatile @Nullable MiniMessageForm<String> miniMessage = null;
+    private volatile @Nullable PlaceholderIndex placeholders = null;
+
     protected ComponentSingleMessage(@NotNull Component message, @NotNull MessageType messageType) {
-        this.message = ComponentMessage.ROOT.append(message).compact();
+        this.message = ComponentMessage.normalize(message);
         this.messageType = messageType;
     }
 
+    // Takes the type first to stay distinct from the public constructor, as it trusts the component is already normalized.
+    private ComponentSingleMessage(@NotNull MessageType messageType, @NotNull Component message) {
+        this.message = message;
+        this.messageType = messageType;
+    }
+
+    /**
+     * Creates a message from a component that is already normalized, skipping the check.
+     */
+    static @NotNull ComponentSingleMessage normalized(@NotNull Component message, @NotNull MessageType messageType) {
+        return new ComponentSingleMessage(messageType, message);
+    }
+
     // Message Getters
 
     /**
@@ -49,7 +76,12 @@ public class ComponentSingleMessage extends ComponentMessage {
      * @return The underlying message as plain text.
      */
     public @NotNull String getAsPlainText() {
-        return PlainTextComponentSerializer.plainText().serialize(message);
+        String plainText = this.plainText;
+        if (plainText == null) {
+            plainText = PlainTextComponentSerializer.plainText().serialize(message);
+            this.plainText = plainText;
+        }
+        return plainText;
     }
 
     /**
@@ -58,7 +90,12 @@ public class ComponentSingleMessage extends ComponentMessage {
      * @return The underlying message as JSON.
      */
     public @NotNull String getAsJson() {
-        return GsonComponentSerializer.gson().serialize(message);
+        String json = this.json;
+        if (json == null) {
+            json = GsonComponentSerializer.gson().serialize(message);
+            this.json = json;
+        }
+        return json;
     }
 
     /**
@@ -67,7 +104,12 @@ public class ComponentSingleMessage extends ComponentMessage {
      * @return The underlying message as Legacy text.
      */
     public @NotNull String getAsLegacy() {
-        return LegacyComponentSerializer.legacySection().serialize(message);
+        String legacy = this.legacy;
+        if (legacy == null) {
+            legacy = LegacyComponentSerializer.legacySection().serialize(message);
+            this.legacy = legacy;
+        }
+        return legacy;
     }
 
     /**
@@ -76,7 +118,55 @@ public class ComponentSingleMessage extends ComponentMessage {
      * @return The underlying message as MiniMessage text.
      */
     public @NotNull String getAsMiniMessage() {
-        return MessageLibSettings.get().getMiniMessage().serialize(message);
+        MiniMessage mm = MessageLibSettings.get().getMiniMessage();
+        MiniMessageForm<String> form = this.miniMessage;
+        // The cached form is only valid for the MiniMessage instance that produced it.
+        if (form == null || form.miniMessage() != mm) {
+            form = new MiniMessageForm<>(mm, mm.serialize(message));
+            this.miniMessage = form;
+        }
+        return form.value();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void writeJson(@NotNull Appendable output) throws IOException {
+        String json = this.json;
+        if (json != null) {
+            output.append(json);
+            return;
+        }
+        try {
+            GsonComponentSerializer.gson().serializer().toJson(message, Component.class, output);
+        } catch (JsonIOException exception) {
+            throw exception.getCause() instanceof IOException ioException ? ioException : new IOException(exception);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int writeJson(@NotNull ByteBuffer output) {
+        return encode(getAsJson(), output);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void writeLegacy(@NotNull Appendable output) throws IOException {
+        output.append(getAsLegacy());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int writeLegacy(@NotNull ByteBuffer output) {
+        return encode(getAsLegacy(), output);
     }
 
     // Class Methods
@@ -86,7 +176,7 @@ public class ComponentSingleMessage extends ComponentMessage {
      */
     @Override
     public ComponentSingleMessage createCopy() {
-        return new ComponentSingleMessage(this.message, messageType);
+        return normalized(this.message, messageType);
     }
 
     /**
@@ -102,7 +192,7 @@ public class ComponentSingleMessage extends ComponentMessage {
      */
     @Override
     public ComponentSingleMessage messageType(@NotNull MessageType messageType) {
-        return new ComponentSingleMessage(message, messageType);
+        return normalized(message, messageType);
     }
 
     /**
@@ -114,10 +204,9 @@ public class ComponentSingleMessage extends ComponentMessage {
             Utils.debug("Cannot append to empty ComponentSingleMessage");
             return this;
         }
-        return new ComponentSingleMessage(
-            message.append(Component.join(JoinConfiguration.newlines(), ObjectProcessor.process(append))),
-            messageType
-        );
+        // Appended content inherits the message's style, so it is added as another child of the container.
+        Component processed = Component.join(JoinConfiguration.newlines(), ObjectProcessor.process(append));
+        return normalized(message.append(processed.compact()), messageType);
     }
 
     /**
@@ -133,8 +222,15 @@ public class ComponentSingleMessage extends ComponentMessage {
         if (Utils.isEmpty(processed)) {
             return this;
         }
-        return new ComponentSingleMessage(processed, messageType)
-            .append(message);
+        // The message used to become a child of the prefix, inheriting its style. The message's own style is
+        // applied to each of its children instead, keeping the tree flat however many times it is prepended to.
+        Component prefix = ComponentMessage.normalize(processed);
+        List<Component> children = new ArrayList<>(prefix.children());
+        Style style = message.style();
+        for (Component child : message.children()) {
+            children.add(child.applyFallbackStyle(style));
+        }
+        return normalized(prefix.children(children), messageType);
     }
 
     /**
@@ -142,6 +238,9 @@ public class ComponentSingleMessage extends ComponentMessage {
      */
     @Override
     public ComponentSingleMessage replace(@NotNull String placeholder, @Nullable Object replacement) {
+        if (!placeholders().contains(placeholder)) {
+            return this;
+        }
         Replacer replacer = Replacer.replacer().addReplacement(placeholder, replacement);
         return new ComponentSingleMessage(replacer.apply(message), messageType);
     }
@@ -151,6 +250,9 @@ public class ComponentSingleMessage extends ComponentMessage {
      */
     @Override
     public ComponentSingleMessage replace(@NotNull Map<String, ?> replacements) {
+        if (!placeholders().containsAny(replacements.keySet())) {
+            return this;
+        }
         Replacer replacer = Replacer.replacer().addReplacements(replacements);
         return new ComponentSingleMessage(replacer.apply(message), messageType);
     }
@@ -160,7 +262,18 @@ public class ComponentSingleMessage extends ComponentMessage {
      */
     @Override
     public ComponentSingleMessage replace(@Nullable Replacer replacer) {
-        if (replacer == null) {
+        if (replacer == null || !placeholders().containsAny(replacer.getReplacements().keySet())) {
+            return this;
+        }
+        return new ComponentSingleMessage(replacer.apply(message), messageType);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ComponentSingleMessage replacePrepared(@Nullable PreparedReplacer replacer) {
+        if (replacer == null || !placeholders().containsAny(replacer.getReplacements().keySet())) {
             return this;
         }
         return new ComponentSingleMessage(replacer.apply(message), messageType);
@@ -171,13 +284,35 @@ public class ComponentSingleMessage extends ComponentMessage {
      */
     @Override
     public ComponentSingleMessage parsePlaceholderAPI(@Nullable OfflinePlayer player) {
-        if (!Utils.PAPI_AVAILABLE) {
+        return parsePlaceholderAPI(player, Map.of());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    ComponentSingleMessage parsePlaceholderAPI(@Nullable OfflinePlayer player, @NotNull Map<String, Component> resolved) {
+        if (!Utils.PAPI_AVAILABLE || !placeholders().hasPlaceholderAPI()) {
+            return this;
+        }
+        Component parsed = Utils.parsePlaceholderAPI(message, player, resolved);
+        if (parsed == message) {
             return this;
         }
-        return new ComponentSingleMessage(
-            Utils.parsePlaceholderAPI(message, player),
-            messageType
-        );
+        return new ComponentSingleMessage(parsed, messageType);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public @NotNull PlaceholderIndex placeholders() {
+        PlaceholderIndex placeholders = this.placeholders;
+        if (placeholders == null) {
+            placeholders = PlaceholderIndex.placeholderIndex(message);
+            this.placeholders = placeholders;
+        }
+        return placeholders;
     }
 
     /**
@@ -212,7 +347,13 @@ public class ComponentSingleMessage extends ComponentMessage {
      */
     @Override
     public boolean isEmpty() {
-        return getAsPlainText().isEmpty();
+        Boolean empty = this.empty;
+        if (empty == null) {
+            String plainText = this.plainText;
+            empty = plainText == null ? Utils.isEmpty(message) : plainText.isEmpty();
+            this.empty = empty;
+        }
+        return empty;
     }
 
     /**
@@ -279,7 +420,7 @@ public class ComponentSingleMessage extends ComponentMessage {
         if (isEmpty()) {
             return;
         }
-        Bukkit.broadcast(message);
+        MessageType.broadcast(message);
     }
 
 }
@@ -0,0 +1,299 @@
+package uk.firedev.messagelib.message;
+
+import net.kyori.adventure.audience.Audience;
+import net.kyori.adventure.identity.Identity;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import uk.firedev.messagelib.config.ConfigLoader;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Messages for several locales, with every fallback resolved when the registry is built.
+ * <p>
+ * Each locale falls back to its explicitly configured fallbacks, then to its language without a country, then to the default locale.
+ * The result of that chain is stored for every locale and key in a table, so a lookup with a {@link MessageKey} is two array reads.
+ */
+// NEEDS TO BE IMMUTABLE - any change makes a new instance.
+public final class LocaleRegistry {
+
+    private final Locale defaultLocale;
+    private final Map<Locale, Integer> locales;
+    // Rows of the registered language-only locales, for locales without a row of their own.
+    // Client locales are never added, as any client can report any number of them.
+    private final Map<String, Integer> languages;
+    private final int defaultRow;
+    private final Map<String, MessageKey> keys;
+    private final ComponentMessage[][] table;
+    // Identifies the keys this registry created.
+    private final Object owner;
+
+    private LocaleRegistry(@NotNull Locale defaultLocale, @NotNull Map<Locale, Integer> locales, @NotNull Map<String, MessageKey> keys, ComponentMessage @NotNull [][] table, @NotNull Object owner) {
+        this.defaultLocale = defaultLocale;
+        this.locales = locales;
+        this.keys = keys;
+        this.table = table;
+        this.owner = owner;
+        this.defaultRow = locales.get(defaultLocale);
+        Map<String, Integer> languages = new HashMap<>();
+        locales.forEach((locale, row) -> {
+            if (locale.getCountry().isEmpty() && locale.getVariant().isEmpty() && locale.getScript().isEmpty()) {
+                languages.put(locale.getLanguage(), row);
+            }
+        });
+        this.languages = languages;
+    }
+
+    public static @NotNull Builder builder(@NotNull Locale defaultLocale) {
+        return new Builder(defaultLocale);
+    }
+
+    /**
+     * Gets the handle for a message path. Handles should be looked up once and kept, such as in a static field.
+     * <p>
+     * Handles only work with the registry that created them.
+     * @param path The path of the message.
+     * @return The handle. If no locale has the path, the handle always resolves to nothing.
+     */
+    public @NotNull MessageKey key(@NotNull String path) {
+        MessageKey key = keys.get(path);
+        return key == null ? new MessageKey(path, -1, owner) : key;
+    }
+
+    /**
+     * Gets the message for the provided locale, following its fallback chain.
+     * @param locale The locale to get the message for.
+     * @param key The handle of the message.
+     * @return The message, or null if no locale in the chain has it.
+     */
+    public @Nullable ComponentMessage get(@NotNull Locale locale, @NotNull MessageKey key) {
+        if (key.owner != owner) {
+            // A handle from another registry has a column in that registry's table, so it is looked up again by path.
+            key = key(key.path());
+        }
+        if (key.index < 0) {
+            return null;
+        }
+        return table[localeIndex(locale)][key.index];
+    }
+
+    /**
+     * Gets the message for the provided locale, following its fallback chain.
+     * @param locale The locale to get the message for.
+     * @param key The handle of the message.
+     * @param def The message to use if no locale in the chain has it.
+     * @return The message, or the default.
+     */
+    public @NotNull ComponentMessage get(@NotNull Locale locale, @NotNull MessageKey key, @NotNull ComponentMessage def) {
+        ComponentMessage message = get(locale, key);
+        return message == null ? def : message;
+    }
+
+    /**
+     * Gets the message for the audience's locale, or the default locale if the audience has none.
+     * @param audience The audience to get the message for.
+     * @param key The handle of the message.
+     * @return The message, or null if no locale in the chain has it.
+     */
+    public @Nullable ComponentMessage get(@NotNull Audience audience, @NotNull MessageKey key) {
+        return get(audience.get(Identity.LOCALE).orElse(defaultLocale), key);
+    }
+
+    /**
+     * Gets the message for the provided locale by path. Prefer {@link #get(Locale, MessageKey)} on hot paths.
+     * @param locale The locale to get the message for.
+     * @param path The path of the message.
+     * @return The message, or null if no locale in the chain has it.
+     */
+    public @Nullable ComponentMessage get(@NotNull Locale locale, @NotNull String path) {
+        return get(locale, key(path));
+    }
+
+    /**
+     * Sends the message to the audience in their own locale.
+     * @param audience The audience to send to.
+     * @param key The handle of the message.
+     */
+    public void send(@NotNull Audience audience, @NotNull MessageKey key) {
+        ComponentMessage message = get(audience, key);
+        if (message != null) {
+            message.send(audience);
+        }
+    }
+
+    public @NotNull Locale getDefaultLocale() {
+        return this.defaultLocale;
+    }
+
+    /**
+     * @return An unmodifiable set of the locales with their own messages or fallbacks.
+     */
+    public @NotNull Set<Locale> getLocales() {
+        return locales.keySet();
+    }
+
+    /**
+     * @return An unmodifiable set of every path in any locale.
+     */
+    public @NotNull Set<String> getPaths() {
+        return keys.keySet();
+    }
+
+    private int localeIndex(@NotNull Locale locale) {
+        Integer index = locales.get(locale);
+        if (index != null) {
+            return index;
+        }
+        index = languages.get(locale.getLanguage());
+        return index != null ? index : defaultRow;
+    }
+
+    /**
+     * A handle for a message path in a {@link LocaleRegistry}. Handles are only created by {@link LocaleRegistry#key(String)}.
+     */
+    public static final class MessageKey {
+
+        private final String path;
+        // The column of the message in the owning registry's table, or -1 if no locale has it.
+        private final int index;
+        private final Object owner;
+
+        private MessageKey(@NotNull String path, int index, @NotNull Object owner) {
+            this.path = path;
+            this.index = index;
+            this.owner = owner;
+        }
+
+        /**
+         * @return The path of the message.
+         */
+        public @NotNull String path() {
+            return this.path;
+        }
+
+        @Override
+        public String toString() {
+            return "MessageKey[" + path + "]";
+        }
+
+    }
+
+    public static final class Builder {
+
+        private final Locale defaultLocale;
+        private final Map<Locale, MessageBundle> bundles = new LinkedHashMap<>();
+        private final Map<Locale, List<Locale>> fallbacks = new HashMap<>();
+
+        private Builder(@NotNull Locale defaultLocale) {
+            this.defaultLocale = defaultLocale;
+        }
+
+        /**
+         * Adds the messages for a locale.
+         * @param locale The locale of the messages.
+         * @param bundle The messages.
+         * @return This builder.
+         */
+        public @NotNull Builder add(@NotNull Locale locale, @NotNull MessageBundle bundle) {
+            bundles.put(locale, bundle);
+            return this;
+        }
+
+        /**
+         * Loads and adds the messages for a locale.
+         * @param locale The locale of the messages.
+         * @param loader The config to load from. This must support {@link ConfigLoader#getKeys(boolean)}.
+         * @return This builder.
+         */
+        public @NotNull Builder add(@NotNull Locale locale, @NotNull ConfigLoader<?> loader) {
+            return add(locale, MessageBundle.messageBundle(loader));
+        }
+
+        /**
+         * Adds every bundle loaded by a {@link MessageBundleLoader}, with each file named after its locale's language tag.
+         * @param result The result of the load.
+         * @return This builder.
+         */
+        public @NotNull Builder addAll(@NotNull MessageBundleLoader.Result result) {
+            result.bundles().forEach((name, bundle) -> add(Locale.forLanguageTag(name.replace('_', '-')), bundle));
+            return this;
+        }
+
+        /**
+         * Makes a locale fall back to another before the automatic fallbacks, such as Portuguese falling back to Spanish.
+         * <p>
+         * Fallbacks are tried in the order they are added.
+         * @param locale The locale that is missing messages.
+         * @param fallback The locale to try next.
+         * @return This builder.
+         */
+        public @NotNull Builder fallback(@NotNull Locale locale, @NotNull Locale fallback) {
+            fallbacks.computeIfAbsent(locale, ignored -> new ArrayList<>()).add(fallback);
+            return this;
+        }
+
+        /**
+         * Resolves every locale and path through its fallback chain.
+         * @return The built registry.
+         */
+        public @NotNull LocaleRegistry build() {
+            if (!bundles.containsKey(defaultLocale)) {
+                throw new IllegalStateException("No messages were added for the default locale " + defaultLocale + ".");
+            }
+            // Locales that only have fallbacks still get their own row, so their chain is kept.
+            Map<Locale, Integer> locales = new LinkedHashMap<>();
+            bundles.keySet().forEach(locale -> locales.put(locale, locales.size()));
+            fallbacks.keySet().forEach(locale -> locales.putIfAbsent(locale, locales.size()));
+
+            Object owner = new Object();
+            Map<String, MessageKey> keys = new LinkedHashMap<>();
+            for (MessageBundle bundle : bundles.values()) {
+                for (String path : bundle.getPaths()) {
+                    keys.computeIfAbsent(path, ignored -> new MessageKey(path, keys.size(), owner));
+                }
+            }
+
+            ComponentMessage[][] table = new ComponentMessage[locales.size()][keys.size()];
+            for (Map.Entry<Locale, Integer> locale : locales.entrySet()) {
+                List<MessageBundle> chain = chain(locale.getKey());
+                ComponentMessage[] row = table[locale.getValue()];
+                for (MessageKey key : keys.values()) {
+                    for (MessageBundle bundle : chain) {
+                        ComponentMessage message = bundle.get(key.path);
+                        if (message != null) {
+                            row[key.index] = message;
+                            break;
+                        }
+                    }
+                }
+            }
+            return new LocaleRegistry(defaultLocale, Collections.unmodifiableMap(locales), Collections.unmodifiableMap(keys), table, owner);
+        }
+
+        private @NotNull List<MessageBundle> chain(@NotNull Locale locale) {
+            Set<Locale> order = new LinkedHashSet<>();
+            order.add(locale);
+            order.addAll(fallbacks.getOrDefault(locale, List.of()));
+            order.add(new Locale(locale.getLanguage()));
+            order.add(defaultLocale);
+            List<MessageBundle> chain = new ArrayList<>();
+            for (Locale candidate : order) {
+                MessageBundle bundle = bundles.get(candidate);
+                if (bundle != null) {
+                    chain.add(bundle);
+                }
+            }
+            return chain;
+        }
+
+    }
+
+}
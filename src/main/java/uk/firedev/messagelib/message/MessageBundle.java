@@ -0,0 +1,347 @@
+package uk.firedev.messagelib.message;
+
+import net.kyori.adventure.text.Component;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import uk.firedev.messagelib.MessageLibSettings;
+import uk.firedev.messagelib.Utils;
+import uk.firedev.messagelib.cache.BoundedCache;
+import uk.firedev.messagelib.config.ConfigLoader;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Every message in a config, parsed once when the bundle is loaded.
+ * <p>
+ * Strings, lists and {@code type}/{@code message} sections resolve as {@link ComponentMessage#componentMessage(ConfigLoader, String)}
+ * does, but looking them up never reads or parses the config again. Unlike that method, the keys inside a message section and
+ * other scalars, such as numbers and booleans, are not messages, so they are missing from the bundle.
+ */
+// NEEDS TO BE IMMUTABLE - any change makes a new instance.
+public final class MessageBundle {
+
+    private static final int DEFAULTS_CACHE_SIZE = 256;
+
+    private final Map<String, ComponentMessage> messages;
+    private final Map<String, Source> sources;
+    private final long generation;
+    // Defaults are usually constants, so parsing each one once is enough.
+    private final BoundedCache<String, ComponentSingleMessage> defaults = new BoundedCache<>(DEFAULTS_CACHE_SIZE);
+
+    private MessageBundle(@NotNull Map<String, ComponentMessage> messages, @NotNull Map<String, Source> sources, long generation) {
+        this.messages = Collections.unmodifiableMap(messages);
+        this.sources = sources;
+        this.generation = generation;
+    }
+
+    /**
+     * Loads every message in the provided config.
+     * @param loader The config to load from. This must support {@link ConfigLoader#getKeys(boolean)}.
+     * @return The loaded bundle.
+     */
+    public static @NotNull MessageBundle messageBundle(@NotNull ConfigLoader<?> loader) {
+        return load(loader, null);
+    }
+
+    /**
+     * Creates a bundle from already loaded messages.
+     * @param messages The messages, keyed by path.
+     * @return The new bundle.
+     */
+    public static @NotNull MessageBundle messageBundle(@NotNull Map<String, ? extends ComponentMessage> messages) {
+        return new MessageBundle(new LinkedHashMap<>(messages), Map.of(), MessageLibSettings.get().getParseGeneration());
+    }
+
+    /**
+     * Loads the provided config again, only parsing the messages whose source has changed since this bundle was loaded.
+     * <p>
+     * Unchanged messages are reused as the same instances, keeping anything they have cached.
+     * Every message is parsed again if the MiniMessage instance or legacy support has changed since this bundle was loaded.
+     * @param loader The config to load from. This must support {@link ConfigLoader#getKeys(boolean)}.
+     * @return The new bundle. This bundle is not changed.
+     */
+    public @NotNull MessageBundle reload(@NotNull ConfigLoader<?> loader) {
+        return load(loader, this);
+    }
+
+    private static @NotNull MessageBundle load(@NotNull ConfigLoader<?> loader, @Nullable MessageBundle previous) {
+        return build(readSources(loader), previous, null);
+    }
+
+    /**
+     * Creates a bundle from messages that match the provided sources, such as messages restored from a cache file.
+     */
+    static @NotNull MessageBundle restored(@NotNull Map<String, ComponentMessage> messages, @NotNull Map<String, Source> sources) {
+        return new MessageBundle(new LinkedHashMap<>(messages), new HashMap<>(sources), MessageLibSettings.get().getParseGeneration());
+    }
+
+    /**
+     * Reads the raw source of every message in the provided config, in the order they appear.
+     */
+    static @NotNull Map<String, Source> readSources(@NotNull ConfigLoader<?> loader) {
+        Map<String, Source> sources = new LinkedHashMap<>();
+        for (String path : keys(loader, true)) {
+            // The keys of a message section, such as its type, are part of that message rather than messages of their own.
+            if (isInsideMessage(sources, path)) {
+                continue;
+            }
+            // Sections without a message, such as groups of messages, and values that are not text have no source and are skipped.
+            Source source = Source.read(loader, path);
+            if (source != null) {
+                sources.put(path, source);
+            }
+        }
+        return sources;
+    }
+
+    /**
+     * Lists the keys of the provided config, failing with a clear message if the loader does not support it.
+     */
+    static @NotNull Set<String> keys(@NotNull ConfigLoader<?> loader, boolean deep) {
+        try {
+            return loader.getKeys(deep);
+        } catch (UnsupportedOperationException exception) {
+            throw new IllegalArgumentException(
+                loader.getClass().getName() + " cannot be used to load a MessageBundle, as it does not implement ConfigLoader#getKeys(boolean).",
+                exception
+            );
+        }
+    }
+
+    private static boolean isInsideMessage(@NotNull Map<String, Source> sources, @NotNull String path) {
+        for (int end = path.lastIndexOf('.'); end > 0; end = path.lastIndexOf('.', end - 1)) {
+            Source parent = sources.get(path.substring(0, end));
+            if (parent != null && parent.section()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Parses the provided sources into a bundle, reusing unchanged messages from the previous bundle.
+     * <p>
+     * If a pool is provided, the sources are parsed on it in parallel. The result is identical to parsing them one by one.
+     */
+    static @NotNull MessageBundle build(@NotNull Map<String, Source> sources, @Nullable MessageBundle previous, @Nullable ForkJoinPool pool) {
+        long generation = MessageLibSettings.get().getParseGeneration();
+        boolean reuse = previous != null && previous.generation == generation;
+        List<String> paths = new ArrayList<>(sources.keySet());
+        ComponentMessage[] parsed = new ComponentMessage[paths.size()];
+        ParseTask task = new ParseTask(paths, sources, reuse ? previous : null, parsed, 0, paths.size());
+        if (pool == null) {
+            task.compute();
+        } else if (ForkJoinTask.inForkJoinPool()) {
+            task.invoke();
+        } else {
+            pool.invoke(task);
+        }
+        // Results are collected by position, so the order never depends on which thread finished first.
+        Map<String, ComponentMessage> messages = new LinkedHashMap<>();
+        Map<String, Source> keptSources = new HashMap<>();
+        for (int i = 0; i < parsed.length; i++) {
+            if (parsed[i] != null) {
+                String path = paths.get(i);
+                messages.put(path, parsed[i]);
+                keptSources.put(path, sources.get(path));
+            }
+        }
+        return new MessageBundle(messages, keptSources, generation);
+    }
+
+    /**
+     * Gets the message at the provided path.
+     * @param path The path of the message.
+     * @return The message, or null if there is no message at the path.
+     */
+    public @Nullable ComponentMessage get(@NotNull String path) {
+        return messages.get(path);
+    }
+
+    /**
+     * Gets the message at the provided path, or the provided default if there is none.
+     * @param path The path of the message.
+     * @param def The default message, which is parsed the first time it is used.
+     * @return The message, or the parsed default.
+     */
+    public @NotNull ComponentMessage get(@NotNull String path, @NotNull String def) {
+        ComponentMessage message = messages.get(path);
+        if (message != null) {
+            return message;
+        }
+        return defaults.get(def, value -> ComponentMessage.componentMessage(value));
+    }
+
+    /**
+     * Gets the message at the provided path, or the provided default if there is none.
+     * @param path The path of the message.
+     * @param def The default message.
+     * @return The message, or the default.
+     */
+    public @NotNull ComponentMessage get(@NotNull String path, @NotNull Component def) {
+        ComponentMessage message = messages.get(path);
+        return message == null ? ComponentMessage.componentMessage(def) : message;
+    }
+
+    /**
+     * Gets the message at the provided path, or the provided default if there is none.
+     * @param path The path of the message.
+     * @param def The default message.
+     * @return The message, or the default.
+     */
+    public @NotNull ComponentMessage get(@NotNull String path, @NotNull ComponentMessage def) {
+        ComponentMessage message = messages.get(path);
+        return message == null ? def : message;
+    }
+
+    /**
+     * Checks if there is a message at the provided path.
+     * @param path The path to check.
+     * @return True if there is a message at the path, false otherwise.
+     */
+    public boolean contains(@NotNull String path) {
+        return messages.containsKey(path);
+    }
+
+    /**
+     * @return An unmodifiable set of every path with a message, in the order they appear in the config.
+     */
+    public @NotNull Set<String> getPaths() {
+        return messages.keySet();
+    }
+
+    /**
+     * @return An unmodifiable map of every message, keyed by path.
+     */
+    public @NotNull Map<String, ComponentMessage> getMessages() {
+        return messages;
+    }
+
+    public int size() {
+        return messages.size();
+    }
+
+    /**
+     * Parses a range of sources, splitting itself in half until each range is small enough to parse directly.
+     */
+    private static final class ParseTask extends RecursiveAction {
+
+        private static final int THRESHOLD = 64;
+
+        private final List<String> paths;
+        private final Map<String, Source> sources;
+        private final @Nullable MessageBundle previous;
+        private final ComponentMessage[] parsed;
+        private final int start;
+        private final int end;
+
+        private ParseTask(@NotNull List<String> paths, @NotNull Map<String, Source> sources, @Nullable MessageBundle previous, ComponentMessage @NotNull [] parsed, int start, int end) {
+            this.paths = paths;
+            this.sources = sources;
+            this.previous = previous;
+            this.parsed = parsed;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected void compute() {
+            if (end - start > THRESHOLD && getPool() != null) {
+                int middle = (start + end) >>> 1;
+                invokeAll(
+                    new ParseTask(paths, sources, previous, parsed, start, middle),
+                    new ParseTask(paths, sources, previous, parsed, middle, end)
+                );
+                return;
+            }
+            for (int i = start; i < end; i++) {
+                String path = paths.get(i);
+                Source source = sources.get(path);
+                parsed[i] = previous != null && source.equals(previous.sources.get(path)) ? previous.messages.get(path) : source.parse();
+            }
+        }
+
+    }
+
+    /**
+     * The raw config values a message was parsed from, used to tell which messages changed between loads.
+     */
+    record Source(boolean section, @Nullable String type, @NotNull Object message) {
+
+        static @Nullable Source read(@NotNull ConfigLoader<?> loader, @NotNull String path) {
+            // Mirrors Utils#getFromConfig.
+            ConfigLoader<?> section = loader.getSection(path);
+            if (section == null) {
+                Object message = loader.getObject(path);
+                // Other scalars, such as numbers and booleans, are settings rather than messages.
+                return message instanceof String || message instanceof List<?> ? new Source(false, null, copy(message)) : null;
+            }
+            Object message = section.getObject("message");
+            return message == null ? null : new Source(true, section.getString("type"), copy(message));
+        }
+
+        // Config lists can be changed after they are read, so they are copied to keep the source accurate.
+        private static @NotNull Object copy(@NotNull Object value) {
+            return value instanceof List<?> list ? new ArrayList<>(list) : value;
+        }
+
+        /**
+         * Hashes the source, so it can be compared against sources from another run.
+         */
+        long hash() {
+            MessageDigest digest;
+            try {
+                digest = MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException exception) {
+                // Every Java runtime is required to support SHA-256.
+                throw new IllegalStateException(exception);
+            }
+            digest.update((byte) (section ? 1 : 0));
+            update(digest, type);
+            if (message instanceof List<?> list) {
+                digest.update((byte) 2);
+                for (Object line : list) {
+                    update(digest, String.valueOf(line));
+                }
+            } else {
+                digest.update((byte) 3);
+                update(digest, message.toString());
+            }
+            return ByteBuffer.wrap(digest.digest()).getLong();
+        }
+
+        // Each value is length prefixed, so different splits of the same text never hash the same.
+        private static void update(@NotNull MessageDigest digest, @Nullable String value) {
+            if (value == null) {
+                digest.update(ByteBuffer.allocate(4).putInt(-1).array());
+                return;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            digest.update(ByteBuffer.allocate(4).putInt(bytes.length).array());
+            digest.update(bytes);
+        }
+
+        @Nullable ComponentMessage parse() {
+            ComponentMessage parsed = Utils.fromObject(message);
+            if (parsed == null || !section) {
+                return parsed;
+            }
+            return parsed.messageType(MessageType.getFromString(type));
+        }
+
+    }
+
+}
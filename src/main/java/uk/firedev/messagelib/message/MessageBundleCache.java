@@ -0,0 +1,235 @@
+package uk.firedev.messagelib.message;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.serializer.gson.GsonComponentSerializer;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import uk.firedev.messagelib.MessageLibSettings;
+import uk.firedev.messagelib.Utils;
+import uk.firedev.messagelib.config.ConfigLoader;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Loads a {@link MessageBundle} through a binary cache file, so unchanged messages are not parsed again on the next startup.
+ * <p>
+ * Each cached message is stored as JSON along with a hash of the config values it came from.
+ * On load, messages whose source hash still matches are restored from the file, and only the rest are parsed.
+ * The whole file is ignored if it was written with different settings, or if it fails its checksum.
+ * <p>
+ * The legacy setting is part of the cache key, but custom MiniMessage tags cannot be detected.
+ * Pass a salt that changes whenever they do, such as the plugin version.
+ */
+public final class MessageBundleCache {
+
+    private static final int MAGIC = 0x4D4C4243;
+    private static final int VERSION = 1;
+    private static final byte SINGLE = 0;
+    private static final byte LIST = 1;
+
+    private MessageBundleCache() {}
+
+    /**
+     * Loads every message in the provided config, using the provided cache file.
+     * @param loader The config to load from. This must support {@link ConfigLoader#getKeys(boolean)}.
+     * @param file The cache file. It is created or replaced if anything has changed.
+     * @return The loaded bundle.
+     */
+    public static @NotNull MessageBundle load(@NotNull ConfigLoader<?> loader, @NotNull Path file) {
+        return load(loader, file, "");
+    }
+
+    /**
+     * Loads every message in the provided config, using the provided cache file.
+     * @param loader The config to load from. This must support {@link ConfigLoader#getKeys(boolean)}.
+     * @param file The cache file. It is created or replaced if anything has changed.
+     * @param salt A value that invalidates the cache when changed, such as the plugin version.
+     * @return The loaded bundle.
+     */
+    public static @NotNull MessageBundle load(@NotNull ConfigLoader<?> loader, @NotNull Path file, @NotNull String salt) {
+        return load(MessageBundle.readSources(loader), file, salt, null);
+    }
+
+    static @NotNull MessageBundle load(@NotNull Map<String, MessageBundle.Source> sources, @NotNull Path file, @NotNull String salt, @Nullable ForkJoinPool pool) {
+        String settingsKey = settingsKey(salt);
+        Map<String, CachedMessage> cached = read(file, settingsKey);
+
+        Map<String, Long> hashes = new HashMap<>();
+        Map<String, ComponentMessage> restored = new LinkedHashMap<>();
+        Map<String, MessageBundle.Source> restoredSources = new HashMap<>();
+        sources.forEach((path, source) -> {
+            long hash = source.hash();
+            hashes.put(path, hash);
+            CachedMessage message = cached.get(path);
+            if (message != null && message.hash() == hash) {
+                restored.put(path, message.message());
+                restoredSources.put(path, source);
+            }
+        });
+
+        // Restored messages are treated as an already loaded bundle, so only the rest are parsed.
+        MessageBundle bundle = MessageBundle.build(sources, MessageBundle.restored(restored, restoredSources), pool);
+        if (restored.size() != bundle.size() || cached.size() != restored.size()) {
+            write(file, settingsKey, bundle, hashes);
+        }
+        return bundle;
+    }
+
+    private static @NotNull String settingsKey(@NotNull String salt) {
+        return "legacy=" + MessageLibSettings.get().isEnableLegacy() + ";salt=" + salt;
+    }
+
+    // Reading
+
+    private static @NotNull Map<String, CachedMessage> read(@NotNull Path file, @NotNull String settingsKey) {
+        // Read onto the heap rather than mapped, as a live mapping would stop the file being replaced on Windows.
+        try {
+            return read(ByteBuffer.wrap(Files.readAllBytes(file)), settingsKey);
+        } catch (NoSuchFileException exception) {
+            return Map.of();
+        } catch (IOException | RuntimeException exception) {
+            // A broken cache only costs a full parse.
+            Utils.debug("message-cache.read", "Ignoring unreadable message cache " + file + ": " + exception);
+            return Map.of();
+        }
+    }
+
+    private static @NotNull Map<String, CachedMessage> read(@NotNull ByteBuffer buffer, @NotNull String settingsKey) throws IOException {
+        if (buffer.remaining() < Long.BYTES) {
+            throw new IOException("File is too short.");
+        }
+        ByteBuffer content = buffer.duplicate().limit(buffer.limit() - Long.BYTES);
+        CRC32 crc = new CRC32();
+        crc.update(content.duplicate());
+        if (crc.getValue() != buffer.getLong(buffer.limit() - Long.BYTES)) {
+            throw new IOException("Checksum does not match.");
+        }
+
+        if (content.getInt() != MAGIC || content.getInt() != VERSION) {
+            throw new IOException("Unknown format.");
+        }
+        if (!readString(content).equals(settingsKey)) {
+            // Written with different settings, so nothing in it can be trusted.
+            return Map.of();
+        }
+        int count = content.getInt();
+        Map<String, CachedMessage> messages = new HashMap<>();
+        for (int i = 0; i < count; i++) {
+            String path = readString(content);
+            long hash = content.getLong();
+            MessageType type = MessageType.getFromString(readString(content));
+            byte kind = content.get();
+            int lineCount = content.getInt();
+            if (lineCount < 0 || lineCount > content.remaining()) {
+                throw new IOException("Invalid line count.");
+            }
+            List<Component> lines = new ArrayList<>(lineCount);
+            for (int line = 0; line < lineCount; line++) {
+                lines.add(GsonComponentSerializer.gson().deserialize(readString(content)));
+            }
+            ComponentMessage message = switch (kind) {
+                case SINGLE -> {
+                    if (lineCount != 1) {
+                        throw new IOException("Invalid single message.");
+                    }
+                    yield ComponentMessage.componentMessage(lines.get(0), type);
+                }
+                case LIST -> new ComponentListMessage(lines, type);
+                default -> throw new IOException("Unknown message kind " + kind + ".");
+            };
+            messages.put(path, new CachedMessage(hash, message));
+        }
+        return messages;
+    }
+
+    private static @NotNull String readString(@NotNull ByteBuffer buffer) throws IOException {
+        int length = buffer.getInt();
+        if (length < 0 || length > buffer.remaining()) {
+            throw new IOException("Invalid string length.");
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // Writing
+
+    private static void write(@NotNull Path file, @NotNull String settingsKey, @NotNull MessageBundle bundle, @NotNull Map<String, Long> hashes) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            CheckedOutputStream checked = new CheckedOutputStream(bytes, new CRC32());
+            DataOutputStream output = new DataOutputStream(checked);
+            output.writeInt(MAGIC);
+            output.writeInt(VERSION);
+            writeString(output, settingsKey);
+            output.writeInt(bundle.size());
+            for (Map.Entry<String, ComponentMessage> entry : bundle.getMessages().entrySet()) {
+                ComponentMessage message = entry.getValue();
+                writeString(output, entry.getKey());
+                output.writeLong(hashes.get(entry.getKey()));
+                writeString(output, message.messageType().name());
+                if (message instanceof ComponentListMessage listMessage) {
+                    List<String> json = listMessage.getAsJson();
+                    output.writeByte(LIST);
+                    output.writeInt(json.size());
+                    for (String line : json) {
+                        writeString(output, line);
+                    }
+                } else {
+                    output.writeByte(SINGLE);
+                    output.writeInt(1);
+                    writeString(output, message.toSingleMessage().getAsJson());
+                }
+            }
+            output.flush();
+            // Written past the checked stream, as the checksum only covers the content before it.
+            new DataOutputStream(bytes).writeLong(checked.getChecksum().getValue());
+
+            // Written to a temporary file first, so a crash never leaves a half written cache behind.
+            Path parent = file.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path temporary = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+            try {
+                try (OutputStream fileOutput = Files.newOutputStream(temporary)) {
+                    bytes.writeTo(fileOutput);
+                }
+                try {
+                    Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException exception) {
+                    Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING);
+                }
+            } finally {
+                Files.deleteIfExists(temporary);
+            }
+        } catch (IOException exception) {
+            Utils.LOGGER.warn("Failed to write message cache {}", file, exception);
+        }
+    }
+
+    private static void writeString(@NotNull DataOutputStream output, @NotNull String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    private record CachedMessage(long hash, @NotNull ComponentMessage message) {}
+
+}
@@ -0,0 +1,153 @@
+package uk.firedev.messagelib.message;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import uk.firedev.messagelib.config.ConfigLoader;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Loads several message files at once, parsing their messages in parallel.
+ * <p>
+ * Each file is read on its own task, then its messages are split across the pool to be parsed.
+ * The loaded bundles are identical to loading each file with {@link MessageBundle#messageBundle(ConfigLoader)}.
+ */
+public final class MessageBundleLoader {
+
+    private final Map<String, ConfigLoader<?>> files = new LinkedHashMap<>();
+    private @Nullable ForkJoinPool pool = ForkJoinPool.commonPool();
+    private @Nullable Path cacheDirectory = null;
+    private @NotNull String cacheSalt = "";
+
+    private MessageBundleLoader() {}
+
+    public static @NotNull MessageBundleLoader messageBundleLoader() {
+        return new MessageBundleLoader();
+    }
+
+    /**
+     * Adds a file to load.
+     * @param name The name to report the file under, such as its locale or file name.
+     * @param loader The config to load from. This must support {@link ConfigLoader#getKeys(boolean)}.
+     * @return This loader.
+     */
+    public @NotNull MessageBundleLoader add(@NotNull String name, @NotNull ConfigLoader<?> loader) {
+        // Checked now, so an unsupported loader fails here instead of inside the parallel load.
+        MessageBundle.keys(loader, false);
+        files.put(name, loader);
+        return this;
+    }
+
+    /**
+     * Sets the pool to load on. The common pool is used by default.
+     * @param pool The pool to use, or null to load everything on the calling thread.
+     * @return This loader.
+     */
+    public @NotNull MessageBundleLoader pool(@Nullable ForkJoinPool pool) {
+        this.pool = pool;
+        return this;
+    }
+
+    /**
+     * Loads each file through a cache file in the provided directory, named after the file.
+     * @param directory The directory to keep cache files in, or null to disable caching.
+     * @param salt A value that invalidates the caches when changed, such as the plugin version.
+     * @return This loader.
+     * @see MessageBundleCache
+     */
+    public @NotNull MessageBundleLoader cache(@Nullable Path directory, @NotNull String salt) {
+        this.cacheDirectory = directory;
+        this.cacheSalt = salt;
+        return this;
+    }
+
+    /**
+     * Loads every added file.
+     * @return The loaded bundles, along with how long each file took.
+     */
+    public @NotNull Result load() {
+        final long start = System.nanoTime();
+        List<String> names = new ArrayList<>(files.keySet());
+        List<FileTask> tasks = new ArrayList<>(names.size());
+        for (String name : names) {
+            Path cacheFile = cacheDirectory == null ? null : cacheDirectory.resolve(name + ".mlcache");
+            tasks.add(new FileTask(name, files.get(name), pool, cacheFile, cacheSalt));
+        }
+        ForkJoinPool pool = this.pool;
+        if (pool == null) {
+            tasks.forEach(FileTask::run);
+        } else {
+            List<ForkJoinTask<?>> submitted = new ArrayList<>(tasks.size());
+            tasks.forEach(task -> submitted.add(pool.submit(task)));
+            submitted.forEach(ForkJoinTask::join);
+        }
+
+        Map<String, MessageBundle> bundles = new LinkedHashMap<>();
+        Map<String, FileReport> reports = new LinkedHashMap<>();
+        for (FileTask task : tasks) {
+            bundles.put(task.name, task.bundle);
+            reports.put(task.name, task.report);
+        }
+        return new Result(
+            Collections.unmodifiableMap(bundles),
+            Collections.unmodifiableMap(reports),
+            Duration.ofNanos(System.nanoTime() - start)
+        );
+    }
+
+    /**
+     * The outcome of loading several files.
+     * @param bundles The loaded bundles, keyed by file name, in the order the files were added.
+     * @param reports How long each file took, keyed by file name.
+     * @param totalTime The time taken to load every file.
+     */
+    public record Result(@NotNull Map<String, MessageBundle> bundles, @NotNull Map<String, FileReport> reports, @NotNull Duration totalTime) {}
+
+    /**
+     * How long a single file took to load.
+     * @param messages The number of messages loaded from the file.
+     * @param readTime The time spent reading the raw messages from the config.
+     * @param parseTime The time spent parsing the messages, including reading and writing the cache file if one is used.
+     */
+    public record FileReport(int messages, @NotNull Duration readTime, @NotNull Duration parseTime) {}
+
+    private static final class FileTask implements Runnable {
+
+        private final String name;
+        private final ConfigLoader<?> loader;
+        private final @Nullable ForkJoinPool pool;
+        private final @Nullable Path cacheFile;
+        private final String cacheSalt;
+        private MessageBundle bundle;
+        private FileReport report;
+
+        private FileTask(@NotNull String name, @NotNull ConfigLoader<?> loader, @Nullable ForkJoinPool pool, @Nullable Path cacheFile, @NotNull String cacheSalt) {
+            this.name = name;
+            this.loader = loader;
+            this.pool = pool;
+            this.cacheFile = cacheFile;
+            this.cacheSalt = cacheSalt;
+        }
+
+        @Override
+        public void run() {
+            final long readStart = System.nanoTime();
+            Map<String, MessageBundle.Source> sources = MessageBundle.readSources(loader);
+            final long parseStart = System.nanoTime();
+            bundle = cacheFile == null
+                ? MessageBundle.build(sources, null, pool)
+                : MessageBundleCache.load(sources, cacheFile, cacheSalt, pool);
+            report = new FileReport(bundle.size(), Duration.ofNanos(parseStart - readStart), Duration.ofNanos(System.nanoTime() - parseStart));
+        }
+
+    }
+
+}
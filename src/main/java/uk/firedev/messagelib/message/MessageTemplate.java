@@ -0,0 +1,389 @@
+package uk.firedev.messagelib.message;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.JoinConfiguration;
+import net.kyori.adventure.text.TextComponent;
+import net.kyori.adventure.text.TextReplacementConfig;
+import net.kyori.adventure.text.format.Style;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import uk.firedev.messagelib.ObjectProcessor;
+import uk.firedev.messagelib.Utils;
+import uk.firedev.messagelib.config.ConfigLoader;
+import uk.firedev.messagelib.replacer.PreparedReplacer;
+import uk.firedev.messagelib.replacer.Replacer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * A message with the positions of its placeholders located ahead of time.
+ * <p>
+ * Compiling a template flattens the message once and splits its text at every placeholder.
+ * Rendering then only fills those slots, so its cost depends on the number of slots rather than the size of the message.
+ * <p>
+ * Templates are immutable and can be rendered as many times as needed.
+ */
+// NEEDS TO BE IMMUTABLE - any change makes a new instance.
+public class MessageTemplate<M extends ComponentMessage> {
+
+    private final List<CompiledLine> lines;
+    private final List<String> placeholders;
+    private final MessageType messageType;
+    private final BiFunction<List<Component>, MessageType, M> factory;
+
+    private MessageTemplate(@NotNull List<Component> lines, @NotNull List<String> placeholders, @NotNull MessageType messageType, @NotNull BiFunction<List<Component>, MessageType, M> factory) {
+        this.placeholders = placeholders.stream()
+            .filter(placeholder -> !placeholder.isEmpty())
+            .distinct()
+            .toList();
+        this.messageType = messageType;
+        this.factory = factory;
+        Pattern pattern = Pattern.compile(
+            this.placeholders.stream()
+                .map(Pattern::quote)
+                .collect(Collectors.joining("|"))
+        );
+        this.lines = lines.stream()
+            .map(line -> CompiledLine.compile(line, this.placeholders, pattern))
+            .toList();
+    }
+
+    // Templates
+
+    /**
+     * Compiles a template from a single message.
+     *
+     * @param message The message to compile.
+     * @param placeholders The placeholders to locate in the message.
+     * @return The compiled template.
+     */
+    public static @NotNull MessageTemplate<ComponentSingleMessage> messageTemplate(@NotNull ComponentSingleMessage message, @NotNull String @NotNull... placeholders) {
+        return new MessageTemplate<>(
+            List.of(message.get()),
+            Arrays.asList(placeholders),
+            message.messageType(),
+            (lines, type) -> ComponentSingleMessage.normalized(lines.get(0), type)
+        );
+    }
+
+    /**
+     * Compiles a template from a list message.
+     *
+     * @param message The message to compile.
+     * @param placeholders The placeholders to locate in the message.
+     * @return The compiled template.
+     */
+    public static @NotNull MessageTemplate<ComponentListMessage> messageTemplate(@NotNull ComponentListMessage message, @NotNull String @NotNull... placeholders) {
+        return new MessageTemplate<>(
+            message.get(),
+            Arrays.asList(placeholders),
+            message.messageType(),
+            ComponentListMessage::normalized
+        );
+    }
+
+    /**
+     * Compiles a template from any message. Rendering produces the same kind of message that was compiled.
+     *
+     * @param message The message to compile.
+     * @param placeholders The placeholders to locate in the message.
+     * @return The compiled template.
+     */
+    public static @NotNull MessageTemplate<ComponentMessage> messageTemplate(@NotNull ComponentMessage message, @NotNull String @NotNull... placeholders) {
+        if (message instanceof ComponentSingleMessage singleMessage) {
+            return new MessageTemplate<>(
+                List.of(singleMessage.get()),
+                Arrays.asList(placeholders),
+                singleMessage.messageType(),
+                (lines, type) -> ComponentSingleMessage.normalized(lines.get(0), type)
+            );
+        } else if (message instanceof ComponentListMessage listMessage) {
+            return new MessageTemplate<>(
+                listMessage.get(),
+                Arrays.asList(placeholders),
+                listMessage.messageType(),
+                ComponentListMessage::normalized
+            );
+        } else {
+            throw new IllegalArgumentException("Invalid ComponentMessage instance provided.");
+        }
+    }
+
+    /**
+     * Compiles a template from a message in the provided config.
+     *
+     * @param loader The config to load from.
+     * @param path The path of the message.
+     * @param placeholders The placeholders to locate in the message.
+     * @return The compiled template, or null if the path does not exist.
+     */
+    public static @Nullable MessageTemplate<ComponentMessage> messageTemplate(@NotNull ConfigLoader<?> loader, @NotNull String path, @NotNull String @NotNull... placeholders) {
+        ComponentMessage message = Utils.getFromConfig(loader, path);
+        return message == null ? null : messageTemplate(message, placeholders);
+    }
+
+    // Getters
+
+    /**
+     * Gets the placeholders this template was compiled with.
+     *
+     * @return The placeholders this template was compiled with.
+     */
+    public @NotNull List<String> getPlaceholders() {
+        return placeholders;
+    }
+
+    /**
+     * Gets the MessageType of rendered messages.
+     *
+     * @return The MessageType of rendered messages.
+     */
+    public @NotNull MessageType messageType() {
+        return messageType;
+    }
+
+    // Rendering
+
+    /**
+     * Renders this template with a single replacement.
+     *
+     * @param placeholder The placeholder to fill.
+     * @param replacement The replacement object. Explicitly supports {@link Component} and {@link ComponentMessage}. Anything else will be converted to a String and processed.
+     * @return A new ComponentMessage with the slots filled.
+     */
+    public @NotNull M render(@NotNull String placeholder, @Nullable Object replacement) {
+        return render(Collections.singletonMap(placeholder, replacement));
+    }
+
+    /**
+     * Renders this template with the provided replacements.
+     * <p>
+     * Placeholders that were not compiled into this template are ignored, and slots without a replacement keep their placeholder text.
+     *
+     * @param replacements A map of placeholders to replacements. Explicitly supports {@link Component} and {@link ComponentSingleMessage} as values. Anything else will be converted to a String and processed.
+     * @return A new ComponentMessage with the slots filled.
+     */
+    public @NotNull M render(@NotNull Map<String, ?> replacements) {
+        Map<String, Component> resolved = new HashMap<>();
+        for (String placeholder : placeholders) {
+            if (replacements.containsKey(placeholder)) {
+                resolved.put(
+                    placeholder,
+                    Component.join(JoinConfiguration.newlines(), ObjectProcessor.process(replacements.get(placeholder)))
+                );
+            }
+        }
+        return renderResolved(resolved);
+    }
+
+    /**
+     * Renders this template with the replacements of the provided Replacer.
+     *
+     * @param replacer The Replacer to take replacements from.
+     * @return A new ComponentMessage with the slots filled.
+     */
+    public @NotNull M render(@Nullable Replacer replacer) {
+        return render(replacer == null ? Map.of() : replacer.getReplacements());
+    }
+
+    /**
+     * Renders this template with the already resolved replacements of the provided PreparedReplacer.
+     *
+     * @param replacer The PreparedReplacer to take replacements from.
+     * @return A new ComponentMessage with the slots filled.
+     */
+    public @NotNull M renderPrepared(@Nullable PreparedReplacer replacer) {
+        return renderResolved(replacer == null ? Map.of() : replacer.getReplacements());
+    }
+
+    private @NotNull M renderResolved(@NotNull Map<String, Component> resolved) {
+        List<Component> rendered = new ArrayList<>(lines.size());
+        for (CompiledLine line : lines) {
+            rendered.add(line.render(resolved));
+        }
+        return factory.apply(rendered, messageType);
+    }
+
+    private interface Part {
+
+        @NotNull Component render(@NotNull Map<String, Component> values);
+
+    }
+
+    private record StaticPart(@NotNull Component component) implements Part {
+
+        @Override
+        public @NotNull Component render(@NotNull Map<String, Component> values) {
+            return component;
+        }
+
+    }
+
+    private record SlotPart(@NotNull String placeholder, @NotNull Style style) implements Part {
+
+        @Override
+        public @NotNull Component render(@NotNull Map<String, Component> values) {
+            Component value = values.get(placeholder);
+            if (value == null) {
+                return Component.text(placeholder, style);
+            }
+            // Wrapping keeps the slot's style inherited, the same as Component#replaceText.
+            return Component.text().style(style).append(value).build();
+        }
+
+    }
+
+    /**
+     * A part whose placeholders cannot be sliced out, such as hover text or translation arguments.
+     */
+    private record DynamicPart(@NotNull Component component, @NotNull Pattern pattern) implements Part {
+
+        @Override
+        public @NotNull Component render(@NotNull Map<String, Component> values) {
+            if (values.isEmpty()) {
+                return component;
+            }
+            return component.replaceText(
+                TextReplacementConfig.builder()
+                    .match(pattern)
+                    .replacement((result, builder) -> {
+                        Component value = values.get(result.group());
+                        return value == null ? builder : value;
+                    })
+                    .build()
+            );
+        }
+
+    }
+
+    private static class CompiledLine {
+
+        private final Component original;
+        private final Part[] parts;
+
+        private CompiledLine(@NotNull Component original, @NotNull List<Part> parts) {
+            this.original = original;
+            this.parts = parts.toArray(new Part[0]);
+        }
+
+        private static @NotNull CompiledLine compile(@NotNull Component line, @NotNull List<String> placeholders, @NotNull Pattern pattern) {
+            List<Part> flattened = new ArrayList<>();
+            if (!placeholders.isEmpty()) {
+                flatten(line, Style.empty(), placeholders, pattern, flattened);
+            }
+            if (flattened.stream().allMatch(part -> part instanceof StaticPart)) {
+                // Nothing to fill, the line is rendered as it was compiled.
+                return new CompiledLine(line, List.of());
+            }
+
+            // Group runs of static parts, so rendering only touches the slots.
+            List<Part> parts = new ArrayList<>();
+            List<Component> run = new ArrayList<>();
+            for (Part part : flattened) {
+                if (part instanceof StaticPart staticPart) {
+                    run.add(staticPart.component());
+                    continue;
+                }
+                flushRun(run, parts);
+                parts.add(part);
+            }
+            flushRun(run, parts);
+            return new CompiledLine(line, parts);
+        }
+
+        private static void flushRun(@NotNull List<Component> run, @NotNull List<Part> parts) {
+            if (run.isEmpty()) {
+                return;
+            }
+            parts.add(new StaticPart(
+                run.size() == 1 ? run.get(0) : Component.text().append(run).build()
+            ));
+            run.clear();
+        }
+
+        private static void flatten(@NotNull Component component, @NotNull Style inherited, @NotNull List<String> placeholders, @NotNull Pattern pattern, @NotNull List<Part> parts) {
+            Style style = component.style().merge(inherited, Style.Merge.Strategy.IF_ABSENT_ON_TARGET);
+            if (component instanceof TextComponent text) {
+                String content = text.content();
+                if (!content.isEmpty()) {
+                    if (containsPlaceholder(Component.text("", style), pattern)) {
+                        parts.add(new DynamicPart(Component.text(content, style), pattern));
+                    } else {
+                        split(content, style, placeholders, parts);
+                    }
+                }
+            } else {
+                Component leaf = component.children(List.of()).style(style);
+                parts.add(
+                    containsPlaceholder(leaf, pattern) ? new DynamicPart(leaf, pattern) : new StaticPart(leaf)
+                );
+            }
+            for (Component child : component.children()) {
+                flatten(child, style, placeholders, pattern, parts);
+            }
+        }
+
+        private static void split(@NotNull String content, @NotNull Style style, @NotNull List<String> placeholders, @NotNull List<Part> parts) {
+            int start = 0;
+            while (start < content.length()) {
+                int found = -1;
+                String foundPlaceholder = null;
+                // The earliest match wins. On a tie, the placeholder listed first wins.
+                for (String placeholder : placeholders) {
+                    int index = content.indexOf(placeholder, start);
+                    if (index != -1 && (found == -1 || index < found)) {
+                        found = index;
+                        foundPlaceholder = placeholder;
+                    }
+                }
+                if (foundPlaceholder == null) {
+                    break;
+                }
+                if (found > start) {
+                    parts.add(new StaticPart(Component.text(content.substring(start, found), style)));
+                }
+                parts.add(new SlotPart(foundPlaceholder, style));
+                start = found + foundPlaceholder.length();
+            }
+            if (start < content.length()) {
+                parts.add(new StaticPart(Component.text(content.substring(start), style)));
+            }
+        }
+
+        private static boolean containsPlaceholder(@NotNull Component component, @NotNull Pattern pattern) {
+            boolean[] found = new boolean[1];
+            component.replaceText(
+                TextReplacementConfig.builder()
+                    .match(pattern)
+                    .replacement((result, builder) -> {
+                        found[0] = true;
+                        return builder;
+                    })
+                    .build()
+            );
+            return found[0];
+        }
+
+        private @NotNull Component render(@NotNull Map<String, Component> values) {
+            if (parts.length == 0) {
+                return original;
+            }
+            Component[] rendered = new Component[parts.length];
+            for (int i = 0; i < parts.length; i++) {
+                rendered[i] = parts[i].render(values);
+            }
+            // Every part already carries its full style, the container only keeps the line normalized.
+            return Component.text().style(original.style()).append(rendered).build();
+        }
+
+    }
+
+}
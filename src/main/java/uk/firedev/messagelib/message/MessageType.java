@@ -4,8 +4,10 @@ import net.kyori.adventure.audience.Audience;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.title.Title;
 import net.kyori.adventure.title.TitlePart;
+import org.bukkit.Bukkit;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
+import uk.firedev.messagelib.metrics.MessageLibMetrics;
 
 import java.util.function.BiConsumer;
 
@@ -31,9 +33,23 @@ public enum MessageType {
         if (audience == null) {
             return;
         }
+        if (MessageLibMetrics.isEnabled()) {
+            MessageLibMetrics.recordSend(this);
+        }
         consumer.accept(audience, message);
     }
 
+    /**
+     * Broadcasts a message in chat, recording it as a single {@link #CHAT} send.
+     * @param message The message to broadcast.
+     */
+    static void broadcast(@NotNull Component message) {
+        if (MessageLibMetrics.isEnabled()) {
+            MessageLibMetrics.recordSend(CHAT);
+        }
+        Bukkit.broadcast(message);
+    }
+
     /**
      * Get a MessageType from a string, defaults to CHAT if the string is null or invalid.
      * @param type The string to convert to a MessageType.
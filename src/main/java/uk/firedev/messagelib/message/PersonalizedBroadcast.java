@@ -0,0 +1,93 @@
+package uk.firedev.messagelib.message;
+
+import net.kyori.adventure.audience.Audience;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import uk.firedev.messagelib.Utils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.BiFunction;
+
+/**
+ * Renders a message for each audience in parallel, then delivers every rendered message in one batch.
+ */
+final class PersonalizedBroadcast {
+
+    private PersonalizedBroadcast() {}
+
+    static @NotNull CompletableFuture<BroadcastReport> broadcast(
+        @NotNull ComponentMessage message,
+        @NotNull List<? extends Audience> audiences,
+        @NotNull BiFunction<? super ComponentMessage, ? super Audience, ? extends @Nullable ComponentMessage> renderer,
+        @NotNull Executor renderExecutor,
+        @NotNull Executor deliveryExecutor
+    ) {
+        final long start = System.nanoTime();
+        List<CompletableFuture<Render>> renders = new ArrayList<>(audiences.size());
+        for (Audience audience : audiences) {
+            renders.add(CompletableFuture.supplyAsync(() -> render(message, audience, renderer), renderExecutor));
+        }
+        // An Error thrown by a renderer is not caught, so it completes the returned future exceptionally.
+        return CompletableFuture.allOf(renders.toArray(CompletableFuture[]::new))
+            .thenApply(ignored -> System.nanoTime() - start)
+            .thenApplyAsync(renderNanos -> {
+                final long deliveryStart = System.nanoTime();
+                int skipped = 0;
+                int failed = 0;
+                for (int i = 0; i < renders.size(); i++) {
+                    // Every render has already finished, so this never blocks.
+                    Render render = renders.get(i).join();
+                    if (render.failed()) {
+                        failed++;
+                        continue;
+                    }
+                    if (render.message() == null) {
+                        skipped++;
+                        continue;
+                    }
+                    // A failed send only skips its own audience, so everyone after it is still delivered to.
+                    try {
+                        render.message().send(audiences.get(i));
+                    } catch (RuntimeException exception) {
+                        Utils.LOGGER.warn("Failed to send personalized message", exception);
+                        failed++;
+                    }
+                }
+                return new BroadcastReport(
+                    audiences.size(),
+                    skipped,
+                    failed,
+                    Duration.ofNanos(renderNanos),
+                    Duration.ofNanos(System.nanoTime() - deliveryStart)
+                );
+            }, deliveryExecutor);
+    }
+
+    // A failed render only skips its own audience instead of failing the whole broadcast.
+    private static @NotNull Render render(
+        @NotNull ComponentMessage message,
+        @NotNull Audience audience,
+        @NotNull BiFunction<? super ComponentMessage, ? super Audience, ? extends @Nullable ComponentMessage> renderer
+    ) {
+        try {
+            return new Render(renderer.apply(message, audience), false);
+        } catch (RuntimeException exception) {
+            Utils.LOGGER.warn("Failed to render personalized message", exception);
+            return Render.FAILED;
+        }
+    }
+
+    /**
+     * The result of rendering for one audience. A null message without a failure means the renderer skipped the audience.
+     */
+    private record Render(@Nullable ComponentMessage message, boolean failed) {
+
+        private static final Render FAILED = new Render(null, true);
+
+    }
+
+}
@@ -0,0 +1,79 @@
+package uk.firedev.messagelib.message;
+
+import net.kyori.adventure.text.Component;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import uk.firedev.messagelib.config.ConfigLoader;
+
+/**
+ * A {@link MessageBundle} that can be reloaded while it is in use.
+ * <p>
+ * Reloading only parses the messages that changed, then swaps the whole bundle in one step.
+ * Readers that need several messages from the same version should get {@link #bundle()} once and read from that.
+ */
+public final class ReloadableMessageBundle {
+
+    private volatile @NotNull MessageBundle bundle;
+
+    private ReloadableMessageBundle(@NotNull MessageBundle bundle) {
+        this.bundle = bundle;
+    }
+
+    /**
+     * Loads every message in the provided config.
+     * @param loader The config to load from. This must support {@link ConfigLoader#getKeys(boolean)}.
+     * @return The loaded bundle.
+     */
+    public static @NotNull ReloadableMessageBundle reloadableMessageBundle(@NotNull ConfigLoader<?> loader) {
+        return new ReloadableMessageBundle(MessageBundle.messageBundle(loader));
+    }
+
+    /**
+     * Reloads the messages from the provided config, which should be a freshly read copy of the same file.
+     * <p>
+     * Unchanged messages keep their instances. Readers see either the old or the new bundle, never a mix of both.
+     * @param loader The config to load from.
+     * @return The new bundle.
+     */
+    public synchronized @NotNull MessageBundle reload(@NotNull ConfigLoader<?> loader) {
+        MessageBundle reloaded = this.bundle.reload(loader);
+        this.bundle = reloaded;
+        return reloaded;
+    }
+
+    /**
+     * @return The current bundle.
+     */
+    public @NotNull MessageBundle bundle() {
+        return this.bundle;
+    }
+
+    /**
+     * @see MessageBundle#get(String)
+     */
+    public @Nullable ComponentMessage get(@NotNull String path) {
+        return this.bundle.get(path);
+    }
+
+    /**
+     * @see MessageBundle#get(String, String)
+     */
+    public @NotNull ComponentMessage get(@NotNull String path, @NotNull String def) {
+        return this.bundle.get(path, def);
+    }
+
+    /**
+     * @see MessageBundle#get(String, Component)
+     */
+    public @NotNull ComponentMessage get(@NotNull String path, @NotNull Component def) {
+        return this.bundle.get(path, def);
+    }
+
+    /**
+     * @see MessageBundle#get(String, ComponentMessage)
+     */
+    public @NotNull ComponentMessage get(@NotNull String path, @NotNull ComponentMessage def) {
+        return this.bundle.get(path, def);
+    }
+
+}
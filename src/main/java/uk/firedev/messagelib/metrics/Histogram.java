@@ -0,0 +1,175 @@
+package uk.firedev.messagelib.metrics;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A thread-safe histogram with power of two buckets.
+ * <p>
+ * Bucket {@code i} counts values up to and including {@code 2^i - 1}, so recording a value is a bit count and two adds, without any locking.
+ */
+public final class Histogram {
+
+    /**
+     * The number of buckets. The last bucket also counts every larger value.
+     */
+    public static final int BUCKETS = 40;
+
+    private final LongAdder[] buckets = new LongAdder[BUCKETS];
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    Histogram() {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Records a value. Negative values are recorded as 0.
+     * @param value The value to record.
+     */
+    public void record(long value) {
+        value = Math.max(0, value);
+        buckets[Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(value))].increment();
+        sum.add(value);
+        max.accumulate(value);
+    }
+
+    void reset() {
+        for (LongAdder bucket : buckets) {
+            bucket.reset();
+        }
+        sum.reset();
+        max.reset();
+    }
+
+    @NotNull Snapshot snapshot() {
+        long[] counts = new long[BUCKETS];
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets[i].sum();
+            count += counts[i];
+        }
+        return new Snapshot(count, sum.sum(), max.get(), counts);
+    }
+
+    /**
+     * Gets the largest value counted by a bucket.
+     * @param bucket The index of the bucket.
+     * @return The bucket's upper bound, or {@link Long#MAX_VALUE} for the last bucket.
+     */
+    public static long upperBound(int bucket) {
+        return bucket >= BUCKETS - 1 ? Long.MAX_VALUE : (1L << bucket) - 1;
+    }
+
+    /**
+     * A point-in-time snapshot of a histogram.
+     * <p>
+     * Values are read without stopping writers, so a snapshot taken under load may be off by the few values recorded while it was read.
+     * @param count The number of recorded values.
+     * @param sum The sum of every recorded value.
+     * @param max The largest recorded value.
+     * @param buckets The count of each bucket. See {@link Histogram#upperBound(int)} for each bucket's range.
+     */
+    public record Snapshot(long count, long sum, long max, long @NotNull [] buckets) {
+
+        private static final Snapshot EMPTY = new Snapshot(0, 0, 0, new long[BUCKETS]);
+
+        public Snapshot {
+            if (buckets.length != BUCKETS) {
+                throw new IllegalArgumentException("Expected " + BUCKETS + " buckets, got " + buckets.length + ".");
+            }
+            buckets = buckets.clone();
+        }
+
+        /**
+         * @return A snapshot with no recorded values.
+         */
+        public static @NotNull Snapshot empty() {
+            return EMPTY;
+        }
+
+        /**
+         * @return A copy of the count of each bucket.
+         */
+        @Override
+        public long @NotNull [] buckets() {
+            return buckets.clone();
+        }
+
+        /**
+         * Gets the count of a single bucket, without copying every bucket.
+         * @param bucket The index of the bucket.
+         * @return The number of recorded values in the bucket.
+         */
+        public long bucket(int bucket) {
+            return buckets[bucket];
+        }
+
+        /**
+         * @return The mean of the recorded values, or 0 if there are none.
+         */
+        public double mean() {
+            return count == 0 ? 0 : (double) sum / count;
+        }
+
+        /**
+         * Estimates a percentile as the upper bound of the bucket it falls in, capped at the largest recorded value.
+         * @param percentile The percentile, between 0 and 1.
+         * @return The estimated value, or 0 if there are no recorded values.
+         */
+        public long percentile(double percentile) {
+            if (count == 0) {
+                return 0;
+            }
+            long rank = (long) Math.ceil(Math.min(1, Math.max(0, percentile)) * count);
+            long seen = 0;
+            for (int i = 0; i < buckets.length; i++) {
+                seen += buckets[i];
+                if (seen >= rank && buckets[i] > 0) {
+                    return Math.min(max, upperBound(i));
+                }
+            }
+            return max;
+        }
+
+        /**
+         * Combines this snapshot with another, such as to total the parses of every format.
+         * @param other The snapshot to combine with.
+         * @return The combined snapshot.
+         */
+        public @NotNull Snapshot plus(@NotNull Snapshot other) {
+            long[] combined = new long[BUCKETS];
+            for (int i = 0; i < BUCKETS; i++) {
+                combined[i] = buckets[i] + other.buckets[i];
+            }
+            return new Snapshot(count + other.count, sum + other.sum, Math.max(max, other.max), combined);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Snapshot snapshot
+                && count == snapshot.count
+                && sum == snapshot.sum
+                && max == snapshot.max
+                && Arrays.equals(buckets, snapshot.buckets);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Objects.hash(count, sum, max) + Arrays.hashCode(buckets);
+        }
+
+        @Override
+        public String toString() {
+            return "Snapshot[count=" + count + ", sum=" + sum + ", max=" + max + ", buckets=" + Arrays.toString(buckets) + "]";
+        }
+
+    }
+
+}
@@ -0,0 +1,143 @@
+package uk.firedev.messagelib.metrics;
+
+import org.jetbrains.annotations.NotNull;
+import uk.firedev.messagelib.MessageLibSettings;
+import uk.firedev.messagelib.TextFormat;
+import uk.firedev.messagelib.message.MessageType;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Optional instrumentation of the library's hot paths.
+ * <p>
+ * Metrics are disabled by default. While disabled, every hook is skipped by a single flag check at its call site,
+ * so nothing is timed or counted. While enabled, recording only touches striped counters and never locks.
+ * Use {@link #snapshot()} to read the values, for example to export them to Prometheus or JMX.
+ */
+public final class MessageLibMetrics {
+
+    private static final TextFormat[] FORMATS = TextFormat.values();
+    private static final MessageType[] TYPES = MessageType.values();
+
+    private static volatile boolean enabled = false;
+
+    private static final Histogram[] parses = histograms(FORMATS.length);
+    private static final Histogram replaceTime = new Histogram();
+    private static final Histogram replaceKeys = new Histogram();
+    private static final Histogram placeholderTime = new Histogram();
+    private static final LongAdder[] sends = counters(TYPES.length);
+
+    private MessageLibMetrics() {}
+
+    /**
+     * @return True if metrics are being recorded, false otherwise.
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Enables or disables recording. Values recorded so far are kept.
+     * @param enabled Whether metrics should be recorded.
+     */
+    public static void setEnabled(boolean enabled) {
+        MessageLibMetrics.enabled = enabled;
+    }
+
+    /**
+     * Discards every recorded value. Cache statistics belong to their caches, so they are not reset.
+     */
+    public static void reset() {
+        for (Histogram histogram : parses) {
+            histogram.reset();
+        }
+        replaceTime.reset();
+        replaceKeys.reset();
+        placeholderTime.reset();
+        for (LongAdder counter : sends) {
+            counter.reset();
+        }
+    }
+
+    /**
+     * Reads every metric, along with the current cache statistics.
+     * @return The snapshot.
+     */
+    public static @NotNull MetricsSnapshot snapshot() {
+        Map<TextFormat, Histogram.Snapshot> parseSnapshots = new EnumMap<>(TextFormat.class);
+        for (TextFormat format : FORMATS) {
+            parseSnapshots.put(format, parses[format.ordinal()].snapshot());
+        }
+        Map<MessageType, Long> sendCounts = new EnumMap<>(MessageType.class);
+        for (MessageType type : TYPES) {
+            sendCounts.put(type, sends[type.ordinal()].sum());
+        }
+        MessageLibSettings settings = MessageLibSettings.get();
+        return new MetricsSnapshot(
+            enabled,
+            parseSnapshots,
+            replaceTime.snapshot(),
+            replaceKeys.snapshot(),
+            placeholderTime.snapshot(),
+            sendCounts,
+            settings.getParseCacheStats(),
+            settings.getPlaceholderCacheStats()
+        );
+    }
+
+    // Hooks. Call sites check isEnabled() first, so these are only reached while recording.
+
+    /**
+     * Records a String being parsed into a Component.
+     * @param format The detected format of the String.
+     * @param nanos How long the parse took.
+     */
+    public static void recordParse(@NotNull TextFormat format, long nanos) {
+        parses[format.ordinal()].record(nanos);
+    }
+
+    /**
+     * Records a replacer being applied to a Component.
+     * @param keys The number of keys the replacer has.
+     * @param nanos How long the replacement took.
+     */
+    public static void recordReplace(int keys, long nanos) {
+        replaceKeys.record(keys);
+        replaceTime.record(nanos);
+    }
+
+    /**
+     * Records a PlaceholderAPI placeholder being resolved by its expansion. Cached placeholders are not included.
+     * @param nanos How long the resolution took.
+     */
+    public static void recordPlaceholder(long nanos) {
+        placeholderTime.record(nanos);
+    }
+
+    /**
+     * Records a message being sent to an audience. A broadcast is recorded once, not once per player.
+     * @param type The type of the message.
+     */
+    public static void recordSend(@NotNull MessageType type) {
+        sends[type.ordinal()].increment();
+    }
+
+    private static Histogram @NotNull [] histograms(int size) {
+        Histogram[] histograms = new Histogram[size];
+        for (int i = 0; i < size; i++) {
+            histograms[i] = new Histogram();
+        }
+        return histograms;
+    }
+
+    private static LongAdder @NotNull [] counters(int size) {
+        LongAdder[] counters = new LongAdder[size];
+        for (int i = 0; i < size; i++) {
+            counters[i] = new LongAdder();
+        }
+        return counters;
+    }
+
+}
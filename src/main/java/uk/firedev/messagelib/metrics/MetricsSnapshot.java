@@ -0,0 +1,96 @@
+package uk.firedev.messagelib.metrics;
+
+import org.jetbrains.annotations.NotNull;
+import uk.firedev.messagelib.TextFormat;
+import uk.firedev.messagelib.cache.CacheStats;
+import uk.firedev.messagelib.message.MessageType;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * A point-in-time snapshot of {@link MessageLibMetrics}. Times are in nanoseconds.
+ * @param enabled Whether metrics were being recorded when the snapshot was taken.
+ * @param parses The parse times of Strings that were not cached, by detected format.
+ * @param replaceTime The time taken by each replacer application.
+ * @param replaceKeys The number of keys of each applied replacer.
+ * @param placeholderTime The time taken by each PlaceholderAPI resolution that was not cached.
+ * @param sends The number of messages sent to an audience, by type. Each broadcast line counts as one chat send.
+ * @param parseCache The statistics of the parse cache.
+ * @param placeholderCache The statistics of the placeholder cache.
+ */
+public record MetricsSnapshot(
+    boolean enabled,
+    @NotNull Map<TextFormat, Histogram.Snapshot> parses,
+    @NotNull Histogram.Snapshot replaceTime,
+    @NotNull Histogram.Snapshot replaceKeys,
+    @NotNull Histogram.Snapshot placeholderTime,
+    @NotNull Map<MessageType, Long> sends,
+    @NotNull CacheStats parseCache,
+    @NotNull CacheStats placeholderCache
+) {
+
+    public MetricsSnapshot {
+        parses = Map.copyOf(parses);
+        sends = Map.copyOf(sends);
+    }
+
+    /**
+     * @return The parse times of every format combined.
+     */
+    public @NotNull Histogram.Snapshot totalParses() {
+        Histogram.Snapshot total = Histogram.Snapshot.empty();
+        for (Histogram.Snapshot snapshot : parses.values()) {
+            total = total.plus(snapshot);
+        }
+        return total;
+    }
+
+    /**
+     * @return The number of messages sent, across every type.
+     */
+    public long totalSends() {
+        return sends.values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    /**
+     * Flattens this snapshot into named values, for exporters that only take numbers such as JMX attributes or Prometheus gauges.
+     * <p>
+     * Names are lowercase and dot separated, such as {@code parse.minimessage.count} or {@code cache.parse.hit_rate}.
+     * @return An ordered map of metric names to values.
+     */
+    public @NotNull Map<String, Number> asMap() {
+        Map<String, Number> values = new LinkedHashMap<>();
+        for (TextFormat format : TextFormat.values()) {
+            putHistogram(values, "parse." + format.name().toLowerCase(Locale.ROOT), parses.getOrDefault(format, Histogram.Snapshot.empty()));
+        }
+        putHistogram(values, "replace.time", replaceTime);
+        putHistogram(values, "replace.keys", replaceKeys);
+        putHistogram(values, "placeholder.time", placeholderTime);
+        for (MessageType type : MessageType.values()) {
+            values.put("send." + type.name().toLowerCase(Locale.ROOT), sends.getOrDefault(type, 0L));
+        }
+        putCache(values, "cache.parse", parseCache);
+        putCache(values, "cache.placeholder", placeholderCache);
+        return values;
+    }
+
+    private static void putHistogram(@NotNull Map<String, Number> values, @NotNull String name, @NotNull Histogram.Snapshot snapshot) {
+        values.put(name + ".count", snapshot.count());
+        values.put(name + ".sum", snapshot.sum());
+        values.put(name + ".max", snapshot.max());
+        values.put(name + ".mean", snapshot.mean());
+        values.put(name + ".p50", snapshot.percentile(0.5));
+        values.put(name + ".p99", snapshot.percentile(0.99));
+    }
+
+    private static void putCache(@NotNull Map<String, Number> values, @NotNull String name, @NotNull CacheStats stats) {
+        values.put(name + ".hits", stats.hits());
+        values.put(name + ".misses", stats.misses());
+        values.put(name + ".evictions", stats.evictions());
+        values.put(name + ".size", stats.size());
+        values.put(name + ".hit_rate", stats.hitRate());
+    }
+
+}
@@ -0,0 +1,145 @@
+package uk.firedev.messagelib.placeholders;
+
+import me.clip.placeholderapi.PlaceholderAPI;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.TextComponent;
+import net.kyori.adventure.text.TextReplacementConfig;
+import net.kyori.adventure.text.TranslatableComponent;
+import net.kyori.adventure.text.event.HoverEvent;
+import org.bukkit.OfflinePlayer;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import uk.firedev.messagelib.MessageLibSettings;
+import uk.firedev.messagelib.Utils;
+import uk.firedev.messagelib.metrics.MessageLibMetrics;
+
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Resolves PlaceholderAPI placeholders by walking a Component's text in place.
+ * <p>
+ * Only the text around each placeholder is split, so the original styles and events are kept.
+ * This class must only be used when PlaceholderAPI is available.
+ */
+public class PAPIResolver {
+
+    private static final Pattern PATTERN = PlaceholderAPI.getPlaceholderPattern();
+
+    private PAPIResolver() {}
+
+    /**
+     * Resolves every placeholder in the provided Component for the provided player.
+     * @param component The component to resolve placeholders in.
+     * @param player The player to resolve placeholders for. Can be null for non-player specific placeholders.
+     * @return The resolved component, or the same instance if it has no placeholders.
+     */
+    public static @NotNull Component resolve(@NotNull Component component, @Nullable OfflinePlayer player) {
+        return resolve(component, player, Map.of());
+    }
+
+    /**
+     * Resolves every placeholder in the provided Component for the provided player, using already resolved values where available.
+     * @param component The component to resolve placeholders in.
+     * @param player The player to resolve placeholders for. Can be null for non-player specific placeholders.
+     * @param resolved Values that were already resolved, such as on another thread, keyed by identifier.
+     * @return The resolved component, or the same instance if it has no placeholders.
+     */
+    public static @NotNull Component resolve(@NotNull Component component, @Nullable OfflinePlayer player, @NotNull Map<String, Component> resolved) {
+        if (!containsPlaceholders(component)) {
+            return component;
+        }
+        return component.replaceText(
+            TextReplacementConfig.builder()
+                .match(PATTERN)
+                .replacement((result, builder) -> {
+                    Component value = resolved.get(result.group(1));
+                    return value != null ? value : resolvePlaceholder(player, result.group(1));
+                })
+                .build()
+        );
+    }
+
+    /**
+     * Resolves a single placeholder for the provided player.
+     * @param player The player to resolve the placeholder for. Can be null for non-player specific placeholders.
+     * @param identifier The placeholder, without the surrounding percent signs.
+     * @return The resolved placeholder. This may come from the {@link PlaceholderCache} if one is set.
+     */
+    public static @NotNull Component resolvePlaceholder(@Nullable OfflinePlayer player, @NotNull String identifier) {
+        PlaceholderCache cache = MessageLibSettings.get().getPlaceholderCache();
+        if (cache == null) {
+            return parsePlaceholder(player, identifier);
+        }
+        return cache.get(player, identifier, PAPIResolver::parsePlaceholder);
+    }
+
+    private static @NotNull Component parsePlaceholder(@Nullable OfflinePlayer player, @NotNull String identifier) {
+        if (!MessageLibMetrics.isEnabled()) {
+            return evaluatePlaceholder(player, identifier);
+        }
+        long start = System.nanoTime();
+        Component resolved = evaluatePlaceholder(player, identifier);
+        MessageLibMetrics.recordPlaceholder(System.nanoTime() - start);
+        return resolved;
+    }
+
+    private static @NotNull Component evaluatePlaceholder(@Nullable OfflinePlayer player, @NotNull String identifier) {
+        // Get PAPI to parse the placeholder for the given player.
+        final String parsedPlaceholder = PlaceholderAPI.setPlaceholders(player, '%' + identifier + '%');
+
+        // We need to turn this ugly legacy string into a nice component.
+        return Utils.LEGACY_COMPONENT_SERIALIZER_SECTION.deserialize(parsedPlaceholder);
+    }
+
+    /**
+     * Checks if the provided Component contains any placeholders, without allocating.
+     * <p>
+     * Text content, hover text and translation arguments are all checked, as those are what {@link Component#replaceText(TextReplacementConfig)} visits.
+     * @param component The component to check.
+     * @return True if any placeholders were found, false otherwise.
+     */
+    public static boolean containsPlaceholders(@NotNull Component component) {
+        if (component instanceof TextComponent text && containsPlaceholders(text.content())) {
+            return true;
+        }
+        if (component instanceof TranslatableComponent translatable) {
+            for (Component argument : translatable.args()) {
+                if (containsPlaceholders(argument)) {
+                    return true;
+                }
+            }
+        }
+        HoverEvent<?> hoverEvent = component.hoverEvent();
+        if (hoverEvent != null && hoverEvent.value() instanceof Component hoverText && containsPlaceholders(hoverText)) {
+            return true;
+        }
+        for (Component child : component.children()) {
+            if (containsPlaceholders(child)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks if the provided String contains a placeholder: two percent signs with at least one other character between them.
+     * @param string The String to check.
+     * @return True if a placeholder was found, false otherwise.
+     */
+    public static boolean containsPlaceholders(@NotNull String string) {
+        int start = string.indexOf('%');
+        while (start != -1) {
+            int end = string.indexOf('%', start + 1);
+            if (end == -1) {
+                return false;
+            }
+            if (end > start + 1) {
+                return true;
+            }
+            start = end;
+        }
+        return false;
+    }
+
+}
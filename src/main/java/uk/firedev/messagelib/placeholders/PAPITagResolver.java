@@ -1,12 +1,10 @@
 package uk.firedev.messagelib.placeholders;
 
-import me.clip.placeholderapi.PlaceholderAPI;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.minimessage.tag.Tag;
 import net.kyori.adventure.text.minimessage.tag.resolver.TagResolver;
 import org.bukkit.OfflinePlayer;
 import org.jetbrains.annotations.Nullable;
-import uk.firedev.messagelib.Utils;
 
 /**
  * A TagResolver for PlaceholderAPI placeholders. Credit to mbaxter for this code provided by the Adventure docs.
@@ -19,10 +17,7 @@ public class PAPITagResolver {
             final String papiPlaceholder = argumentQueue.popOr("papi tag requires an argument").value();
 
             // Then get PAPI to parse the placeholder for the given player.
-            final String parsedPlaceholder = PlaceholderAPI.setPlaceholders(player, '%' + papiPlaceholder + '%');
-
-            // We need to turn this ugly legacy string into a nice component.
-            final Component componentPlaceholder = Utils.LEGACY_COMPONENT_SERIALIZER_SECTION.deserialize(parsedPlaceholder);
+            final Component componentPlaceholder = PAPIResolver.resolvePlaceholder(player, papiPlaceholder);
 
             // Finally, return the tag instance to insert the placeholder!
             return Tag.selfClosingInserting(componentPlaceholder);
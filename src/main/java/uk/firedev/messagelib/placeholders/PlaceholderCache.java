@@ -0,0 +1,157 @@
+package uk.firedev.messagelib.placeholders;
+
+import net.kyori.adventure.text.Component;
+import org.bukkit.Bukkit;
+import org.bukkit.OfflinePlayer;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import uk.firedev.messagelib.cache.BoundedCache;
+import uk.firedev.messagelib.cache.CacheStats;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+
+/**
+ * Caches resolved PlaceholderAPI placeholders per player, so expensive expansions are not evaluated again for every message.
+ * <p>
+ * Entries either expire after a fixed time, or at the end of the server tick they were resolved in.
+ * The resolved Component is cached, so the legacy conversion is reused as well.
+ */
+public class PlaceholderCache {
+
+    private final BoundedCache<Key, Entry> entries;
+    private final @Nullable Duration ttl;
+    private final Set<String> excluded = ConcurrentHashMap.newKeySet();
+
+    private PlaceholderCache(int maximumSize, @Nullable Duration ttl) {
+        this.entries = new BoundedCache<>(maximumSize);
+        this.ttl = ttl;
+    }
+
+    /**
+     * Creates a cache whose entries expire after the provided time.
+     * @param maximumSize The maximum number of cached placeholders.
+     * @param ttl How long a resolved placeholder stays cached.
+     * @return The new cache.
+     */
+    public static PlaceholderCache placeholderCache(int maximumSize, @NotNull Duration ttl) {
+        if (ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("TTL must be positive.");
+        }
+        return new PlaceholderCache(maximumSize, ttl);
+    }
+
+    /**
+     * Creates a cache whose entries expire at the end of the server tick they were resolved in.
+     * @param maximumSize The maximum number of cached placeholders.
+     * @return The new cache.
+     */
+    public static PlaceholderCache tickScopedPlaceholderCache(int maximumSize) {
+        return new PlaceholderCache(maximumSize, null);
+    }
+
+    /**
+     * Stops a placeholder from being cached, for placeholders whose value changes too often.
+     * <p>
+     * Either a full identifier, such as {@code server_online}, or an expansion identifier, such as {@code server}, can be provided.
+     * @param identifier The identifier to exclude, without the surrounding percent signs.
+     */
+    public void exclude(@NotNull String identifier) {
+        excluded.add(identifier.toLowerCase(Locale.ROOT));
+        entries.invalidateIf(key -> isExcluded(key.identifier()));
+    }
+
+    /**
+     * Stops several placeholders from being cached.
+     * @param identifiers The identifiers to exclude.
+     * @see #exclude(String)
+     */
+    public void exclude(@NotNull Collection<String> identifiers) {
+        identifiers.forEach(this::exclude);
+    }
+
+    /**
+     * Allows a previously excluded placeholder to be cached again.
+     * @param identifier The identifier to include.
+     */
+    public void include(@NotNull String identifier) {
+        excluded.remove(identifier.toLowerCase(Locale.ROOT));
+    }
+
+    public boolean isExcluded(@NotNull String identifier) {
+        return PlaceholderIdentifiers.matches(excluded, identifier);
+    }
+
+    /**
+     * Gets a resolved placeholder, resolving and caching it if needed.
+     * @param player The player to resolve the placeholder for. Can be null for non-player specific placeholders.
+     * @param identifier The placeholder, without the surrounding percent signs.
+     * @param resolver The function to resolve a missing placeholder with.
+     * @return The resolved placeholder.
+     */
+    public @NotNull Component get(@Nullable OfflinePlayer player, @NotNull String identifier, @NotNull BiFunction<@Nullable OfflinePlayer, @NotNull String, @NotNull Component> resolver) {
+        if (isExcluded(identifier)) {
+            return resolver.apply(player, identifier);
+        }
+        Key key = new Key(player == null ? null : player.getUniqueId(), identifier);
+        long now = now();
+        Entry entry = entries.getIfValid(key, cached -> cached.isValid(now));
+        if (entry != null) {
+            return entry.component();
+        }
+        Component component = resolver.apply(player, identifier);
+        entries.put(key, new Entry(component, ttl == null ? now : now + ttl.toNanos()));
+        return component;
+    }
+
+    /**
+     * Discards every cached placeholder for the provided player, such as when they leave the server.
+     * @param player The UUID of the player.
+     */
+    public void invalidate(@NotNull UUID player) {
+        entries.invalidateIf(key -> player.equals(key.player()));
+    }
+
+    /**
+     * Discards every cached placeholder.
+     */
+    public void invalidateAll() {
+        entries.invalidateAll();
+    }
+
+    public @Nullable Duration getTtl() {
+        return this.ttl;
+    }
+
+    public boolean isTickScoped() {
+        return this.ttl == null;
+    }
+
+    /**
+     * @return A snapshot of this cache's statistics. Expired entries count as misses.
+     */
+    public @NotNull CacheStats stats() {
+        return entries.stats();
+    }
+
+    private long now() {
+        return ttl == null ? Bukkit.getCurrentTick() : System.nanoTime();
+    }
+
+    private record Key(@Nullable UUID player, @NotNull String identifier) {}
+
+    private record Entry(@NotNull Component component, long expiry) {
+
+        // For tick scoped caches the expiry is the tick the entry was resolved in.
+        boolean isValid(long now) {
+            return now - expiry <= 0;
+        }
+
+    }
+
+}
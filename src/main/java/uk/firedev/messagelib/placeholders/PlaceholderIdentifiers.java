@@ -0,0 +1,36 @@
+package uk.firedev.messagelib.placeholders;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Matches PlaceholderAPI identifiers against configured sets of identifiers.
+ * <p>
+ * This class does not touch PlaceholderAPI itself, so it is safe to use when PlaceholderAPI is not installed.
+ */
+public final class PlaceholderIdentifiers {
+
+    private PlaceholderIdentifiers() {}
+
+    /**
+     * Checks if an identifier is in the provided set, either as a full identifier such as {@code server_online},
+     * or through its expansion identifier such as {@code server}.
+     * @param identifiers The lowercase identifiers to match against.
+     * @param identifier The identifier to check, without the surrounding percent signs.
+     * @return True if the identifier matches, false otherwise.
+     */
+    public static boolean matches(@NotNull Set<String> identifiers, @NotNull String identifier) {
+        if (identifiers.isEmpty()) {
+            return false;
+        }
+        String lowerIdentifier = identifier.toLowerCase(Locale.ROOT);
+        if (identifiers.contains(lowerIdentifier)) {
+            return true;
+        }
+        int separator = lowerIdentifier.indexOf('_');
+        return separator > 0 && identifiers.contains(lowerIdentifier.substring(0, separator));
+    }
+
+}
@@ -0,0 +1,157 @@
+package uk.firedev.messagelib.placeholders;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.TextComponent;
+import net.kyori.adventure.text.TranslatableComponent;
+import net.kyori.adventure.text.event.HoverEvent;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The text of a Component that placeholders can be replaced in, along with the PlaceholderAPI placeholders it contains.
+ * <p>
+ * Only the text that {@link Component#replaceText(net.kyori.adventure.text.TextReplacementConfig)} visits is kept:
+ * text content, translation arguments and hover text. This means a token that is not found can never be replaced,
+ * so replacing it can be skipped entirely.
+ * <p>
+ * This is not a token index, as replacement keys can be any String. The texts are kept by reference, without copying them,
+ * and {@link #contains(String)} scans them linearly. That is still far cheaper than a replacement pass, which rebuilds the Component.
+ */
+// NEEDS TO BE IMMUTABLE - any change makes a new instance.
+public final class PlaceholderIndex {
+
+    private static final PlaceholderIndex EMPTY = new PlaceholderIndex(List.of(), Set.of());
+
+    // The content Strings of the Component's text nodes, shared with the Component rather than copied.
+    private final List<String> texts;
+    private final Set<String> placeholderAPI;
+
+    private PlaceholderIndex(@NotNull List<String> texts, @NotNull Set<String> placeholderAPI) {
+        this.texts = texts;
+        this.placeholderAPI = placeholderAPI;
+    }
+
+    /**
+     * Indexes the provided Component.
+     * @param component The component to index.
+     * @return The index of the component.
+     */
+    public static @NotNull PlaceholderIndex placeholderIndex(@NotNull Component component) {
+        List<String> texts = new ArrayList<>();
+        Set<String> placeholderAPI = new LinkedHashSet<>();
+        collect(component, texts, placeholderAPI);
+        if (texts.isEmpty()) {
+            return EMPTY;
+        }
+        return new PlaceholderIndex(
+            List.copyOf(texts),
+            placeholderAPI.isEmpty() ? Set.of() : Collections.unmodifiableSet(placeholderAPI)
+        );
+    }
+
+    /**
+     * Combines several indexes into one, such as the indexes of each line of a message.
+     * @param indexes The indexes to combine.
+     * @return The combined index.
+     */
+    public static @NotNull PlaceholderIndex combine(@NotNull List<PlaceholderIndex> indexes) {
+        if (indexes.isEmpty()) {
+            return EMPTY;
+        }
+        if (indexes.size() == 1) {
+            return indexes.get(0);
+        }
+        List<String> texts = new ArrayList<>();
+        Set<String> placeholderAPI = new LinkedHashSet<>();
+        for (PlaceholderIndex index : indexes) {
+            texts.addAll(index.texts);
+            placeholderAPI.addAll(index.placeholderAPI);
+        }
+        return new PlaceholderIndex(List.copyOf(texts), Collections.unmodifiableSet(placeholderAPI));
+    }
+
+    /**
+     * Gets the PlaceholderAPI placeholders in the indexed Component, without the surrounding percent signs.
+     * <p>
+     * This can be used to fetch every value in bulk before the message is rendered.
+     * @return An unmodifiable set of placeholder identifiers, in the order they first appear.
+     */
+    public @NotNull Set<String> getPlaceholderAPI() {
+        return placeholderAPI;
+    }
+
+    /**
+     * @return True if the indexed Component contains any PlaceholderAPI placeholders, false otherwise.
+     */
+    public boolean hasPlaceholderAPI() {
+        return !placeholderAPI.isEmpty();
+    }
+
+    /**
+     * Checks if the provided token, such as a {@link uk.firedev.messagelib.replacer.Replacer} key, could be replaced in the indexed Component.
+     * @param token The token to check for.
+     * @return True if the token was found, false otherwise.
+     */
+    public boolean contains(@NotNull String token) {
+        for (String text : texts) {
+            if (text.contains(token)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks if any of the provided tokens could be replaced in the indexed Component.
+     * @param tokens The tokens to check for.
+     * @return True if any of the tokens were found, false otherwise.
+     */
+    public boolean containsAny(@NotNull Collection<String> tokens) {
+        for (String token : tokens) {
+            if (contains(token)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void collect(@NotNull Component component, @NotNull List<String> texts, @NotNull Set<String> placeholderAPI) {
+        if (component instanceof TextComponent textComponent && !textComponent.content().isEmpty()) {
+            String content = textComponent.content();
+            texts.add(content);
+            findPlaceholderAPI(content, placeholderAPI);
+        }
+        if (component instanceof TranslatableComponent translatable) {
+            translatable.args().forEach(argument -> collect(argument, texts, placeholderAPI));
+        }
+        HoverEvent<?> hoverEvent = component.hoverEvent();
+        if (hoverEvent != null && hoverEvent.value() instanceof Component hoverText) {
+            collect(hoverText, texts, placeholderAPI);
+        }
+        component.children().forEach(child -> collect(child, texts, placeholderAPI));
+    }
+
+    // Mirrors PlaceholderAPI's pattern: two percent signs with at least one other character between them.
+    private static void findPlaceholderAPI(@NotNull String content, @NotNull Set<String> placeholderAPI) {
+        int start = content.indexOf('%');
+        while (start != -1) {
+            int end = content.indexOf('%', start + 1);
+            if (end == -1) {
+                return;
+            }
+            if (end == start + 1) {
+                start = end;
+                continue;
+            }
+            placeholderAPI.add(content.substring(start + 1, end));
+            start = content.indexOf('%', end + 1);
+        }
+    }
+
+}
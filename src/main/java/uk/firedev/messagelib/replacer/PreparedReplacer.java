@@ -0,0 +1,159 @@
+package uk.firedev.messagelib.replacer;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.JoinConfiguration;
+import net.kyori.adventure.text.TextReplacementConfig;
+import net.kyori.adventure.text.serializer.plain.PlainTextComponentSerializer;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import uk.firedev.messagelib.metrics.MessageLibMetrics;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An immutable snapshot of a {@link Replacer} with every replacement already resolved to its final Component.
+ * <p>
+ * Values are only processed once, when the snapshot is created, so one instance can be stored in a static field
+ * and applied to any number of messages and lines from any thread.
+ */
+// NEEDS TO BE IMMUTABLE - any change makes a new instance.
+public final class PreparedReplacer {
+
+    private static final PreparedReplacer EMPTY = new PreparedReplacer(Map.of(), null);
+
+    private final Map<String, Component> replacements;
+    private final Map<String, List<Component>> lines;
+    private final @Nullable TextReplacementConfig singlePass;
+
+    PreparedReplacer(@NotNull Map<String, List<Component>> lines, @Nullable ReplacementMatcher matcher) {
+        Map<String, Component> replacements = new LinkedHashMap<>();
+        Map<String, List<Component>> copiedLines = new LinkedHashMap<>();
+        lines.forEach((key, value) -> {
+            replacements.put(key, Component.join(JoinConfiguration.newlines(), value));
+            copiedLines.put(key, List.copyOf(value));
+        });
+        this.replacements = Collections.unmodifiableMap(replacements);
+        this.lines = Collections.unmodifiableMap(copiedLines);
+        this.singlePass = matcher == null ? null : createSinglePassConfig(this.replacements, matcher);
+    }
+
+    /**
+     * Gets a PreparedReplacer that replaces nothing.
+     * @return The empty PreparedReplacer.
+     */
+    public static @NotNull PreparedReplacer empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Gets the resolved replacements of this PreparedReplacer.
+     * @return An unmodifiable map of placeholders to their resolved replacements.
+     */
+    public @NotNull Map<String, Component> getReplacements() {
+        return replacements;
+    }
+
+    /**
+     * Checks if this PreparedReplacer has no replacements.
+     * @return True if there are no replacements, false otherwise.
+     */
+    public boolean isEmpty() {
+        return replacements.isEmpty();
+    }
+
+    /**
+     * Applies the replacements to the provided Component.
+     * @param component The component to apply the replacements to.
+     * @return The modified component.
+     */
+    public @NotNull Component apply(@NotNull Component component) {
+        if (replacements.isEmpty()) {
+            return component;
+        }
+        if (!MessageLibMetrics.isEnabled()) {
+            return replace(component);
+        }
+        long start = System.nanoTime();
+        Component replaced = replace(component);
+        MessageLibMetrics.recordReplace(replacements.size(), System.nanoTime() - start);
+        return replaced;
+    }
+
+    private @NotNull Component replace(@NotNull Component component) {
+        if (singlePass != null) {
+            return component.replaceText(singlePass);
+        }
+        for (Map.Entry<String, Component> entry : replacements.entrySet()) {
+            component = component.replaceText(
+                builder -> builder.matchLiteral(entry.getKey()).replacement(entry.getValue())
+            );
+        }
+        return component;
+    }
+
+    /**
+     * Applies the replacements to a list of Components.
+     * @param components The list of components to apply the replacements to.
+     * @return The modified list of components.
+     */
+    public @NotNull List<Component> apply(@NotNull List<Component> components) {
+        if (replacements.isEmpty()) {
+            return List.copyOf(components);
+        }
+        return components.stream().map(this::apply).toList();
+    }
+
+    /**
+     * Applies the replacements to a list of Components.
+     * <p>
+     * If a variable is found, the replacement list is inserted in place of the variable's entry.
+     * @param components The list of components to apply the replacements to.
+     * @return The modified list of components.
+     */
+    public @NotNull List<Component> applyWithListInsertion(@NotNull List<Component> components) {
+        List<Component> newList = new ArrayList<>();
+        for (Component component : components) {
+            boolean replaced = false;
+            String plainText = PlainTextComponentSerializer.plainText().serialize(component);
+            for (Map.Entry<String, List<Component>> entry : lines.entrySet()) {
+                if (plainText.contains(entry.getKey())) {
+                    newList.addAll(entry.getValue());
+                    replaced = true;
+                    break;
+                }
+            }
+            if (!replaced) {
+                newList.add(component);
+            }
+        }
+        return newList;
+    }
+
+    /**
+     * Creates a config that replaces every key in one traversal, if that gives the same result as replacing them one after another.
+     * <p>
+     * This is not the case when keys overlap, or when a replacement contains a key that a later pass would replace.
+     * @return The single pass config, or null if the keys must be replaced one after another.
+     */
+    private static @Nullable TextReplacementConfig createSinglePassConfig(@NotNull Map<String, Component> replacements, @NotNull ReplacementMatcher matcher) {
+        if (replacements.isEmpty()) {
+            return null;
+        }
+        if (replacements.size() > 1) {
+            if (matcher.isOverlapping()) {
+                return null;
+            }
+            for (Component value : replacements.values()) {
+                if (matcher.matches(PlainTextComponentSerializer.plainText().serialize(value))) {
+                    return null;
+                }
+            }
+        }
+        return matcher.createConfig(replacements);
+    }
+
+}
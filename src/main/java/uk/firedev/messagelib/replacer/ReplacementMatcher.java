@@ -0,0 +1,86 @@
+package uk.firedev.messagelib.replacer;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.TextReplacementConfig;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Matches every key of a Replacer in a single pass over a Component's text.
+ * <p>
+ * A single pass only gives the same result as replacing each key in turn when no two keys can claim the same text,
+ * so overlapping key sets are flagged for the caller to fall back to sequential replacement.
+ */
+class ReplacementMatcher {
+
+    private final List<String> keys;
+    private final Pattern pattern;
+    private final boolean overlapping;
+
+    ReplacementMatcher(@NotNull List<String> keys) {
+        this.keys = List.copyOf(keys);
+        this.pattern = Pattern.compile(
+            this.keys.stream()
+                .map(Pattern::quote)
+                .collect(Collectors.joining("|"))
+        );
+        this.overlapping = findOverlap(this.keys);
+    }
+
+    /**
+     * @return Whether any two keys can match the same text.
+     */
+    boolean isOverlapping() {
+        return overlapping;
+    }
+
+    /**
+     * Checks if the provided text contains any of the keys.
+     * @param text The text to check.
+     * @return True if any key was found, false otherwise.
+     */
+    boolean matches(@NotNull String text) {
+        return pattern.matcher(text).find();
+    }
+
+    /**
+     * Creates a replacement config that substitutes every key in one traversal.
+     * @param values The resolved replacement of every key.
+     * @return The replacement config.
+     */
+    @NotNull TextReplacementConfig createConfig(@NotNull Map<String, Component> values) {
+        return TextReplacementConfig.builder()
+            .match(pattern)
+            .replacement((result, builder) -> values.get(result.group()))
+            .build();
+    }
+
+    private static boolean findOverlap(@NotNull List<String> keys) {
+        for (String first : keys) {
+            if (first.isEmpty()) {
+                return true;
+            }
+            for (String second : keys) {
+                if (first == second) {
+                    continue;
+                }
+                if (first.contains(second)) {
+                    return true;
+                }
+                // A suffix of the first key being a prefix of the second means both can match across the same text.
+                int max = Math.min(first.length(), second.length()) - 1;
+                for (int length = 1; length <= max; length++) {
+                    if (first.regionMatches(first.length() - length, second, 0, length)) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+}
@@ -1,21 +1,22 @@
 package uk.firedev.messagelib.replacer;
 
 import net.kyori.adventure.text.Component;
-import net.kyori.adventure.text.JoinConfiguration;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import uk.firedev.messagelib.ObjectProcessor;
-import uk.firedev.messagelib.message.ComponentMessage;
 import uk.firedev.messagelib.message.ComponentSingleMessage;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
 public class Replacer {
 
     private final Map<String, Object> replacements = new HashMap<>();
+    private @Nullable ReplacementMatcher matcher = null;
 
     private Replacer() {}
 
@@ -35,6 +36,7 @@ public class Replacer {
      */
     public Replacer addReplacement(@NotNull String string, @Nullable Object replacement) {
         this.replacements.put(string, replacement);
+        this.matcher = null;
         return this;
     }
 
@@ -45,6 +47,7 @@ public class Replacer {
      */
     public Replacer addReplacements(@NotNull Map<String, ?> replacements) {
         this.replacements.putAll(replacements);
+        this.matcher = null;
         return this;
     }
 
@@ -60,6 +63,7 @@ public class Replacer {
             }
             replacements.putAll(other.replacements);
         }
+        this.matcher = null;
         return this;
     }
 
@@ -69,22 +73,42 @@ public class Replacer {
      */
     public Replacer clear() {
         this.replacements.clear();
+        this.matcher = null;
         return this;
     }
 
+    /**
+     * Gets the replacements of this Replacer.
+     * @return An unmodifiable view of the replacements.
+     */
+    public Map<String, Object> getReplacements() {
+        return Collections.unmodifiableMap(this.replacements);
+    }
+
+    /**
+     * Resolves every replacement to its final Component and returns an immutable snapshot of this Replacer.
+     * <p>
+     * The snapshot is not affected by later changes to this Replacer, and is safe to share between threads.
+     * @return The prepared snapshot.
+     */
+    public PreparedReplacer prepare() {
+        if (replacements.isEmpty()) {
+            return PreparedReplacer.empty();
+        }
+        Map<String, List<Component>> resolved = new LinkedHashMap<>();
+        for (Map.Entry<String, Object> entry : replacements.entrySet()) {
+            resolved.put(entry.getKey(), ObjectProcessor.process(entry.getValue()));
+        }
+        return new PreparedReplacer(resolved, getMatcher());
+    }
+
     /**
      * Applies the replacements to the provided Component.
      * @param component The component to apply the replacements to.
      * @return The modified component.
      */
     public Component apply(@NotNull Component component) {
-        for (Map.Entry<String, Object> entry : replacements.entrySet()) {
-            Component replacement = Component.join(JoinConfiguration.newlines(), ObjectProcessor.process(entry.getValue()));
-            component = component.replaceText(
-                builder -> builder.matchLiteral(entry.getKey()).replacement(replacement)
-            );
-        }
-        return component;
+        return prepare().apply(component);
     }
 
     /**
@@ -93,7 +117,7 @@ public class Replacer {
      * @return The modified list of components.
      */
     public List<Component> apply(@NotNull List<Component> components) {
-        return components.stream().map(this::apply).toList();
+        return prepare().apply(components);
     }
 
     /**
@@ -103,24 +127,17 @@ public class Replacer {
      * @param components The list of components to apply the replacements to.
      * @return The modified list of components.
      */
-    // TODO potentially clean up at some point?
     public List<Component> applyWithListInsertion(@NotNull List<Component> components) {
-        List<Component> newList = new ArrayList<>();
-        for (Component component : components) {
-            boolean replaced = false;
-            for (Map.Entry<String, Object> entry : replacements.entrySet()) {
-                ComponentSingleMessage single = ComponentMessage.componentMessage(component);
-                if (single.contains(entry.getKey())) {
-                    newList.addAll(ObjectProcessor.process(entry.getValue()));
-                    replaced = true;
-                    break;
-                }
-            }
-            if (!replaced) {
-                newList.add(component);
-            }
+        return prepare().applyWithListInsertion(components);
+    }
+
+    private ReplacementMatcher getMatcher() {
+        ReplacementMatcher matcher = this.matcher;
+        if (matcher == null) {
+            matcher = new ReplacementMatcher(new ArrayList<>(replacements.keySet()));
+            this.matcher = matcher;
         }
-        return newList;
+        return matcher;
     }
 
 }